@@ -0,0 +1,105 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pique.analysis.ITool;
+import runnable.QualityModelDeriver;
+import runnable.SingleProjectEvaluator;
+import tool.CODESYSWrapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A full {@link SingleProjectEvaluator#runEvaluator} of one synthetic project: parsing, evaluation against a derived
+ * model and export. The model is derived once per trial from a small synthetic benchmark repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    private static final int BENCHMARK_PROJECTS = 5;
+    private static final int BENCHMARK_PROJECT_FINDINGS = 1000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int findings;
+
+    private final SingleProjectEvaluator evaluator = new SingleProjectEvaluator();
+    private final Set<ITool> tools = Collections.singleton(new CODESYSWrapper());
+    private Path workDirectory;
+    private Path projectDirectory;
+    private Path resultsDirectory;
+    private Path derivedModel;
+
+    @Setup(Level.Trial)
+    public void deriveModel() throws IOException {
+        workDirectory = Files.createTempDirectory("codesys-evaluate");
+        BenchmarkFiles.generatorFor(BENCHMARK_PROJECT_FINDINGS).writeBenchmarkRepository(workDirectory.resolve("benchmarks"), BENCHMARK_PROJECTS);
+        projectDirectory = workDirectory.resolve("input").resolve("synthetic");
+        BenchmarkFiles.generatorFor(findings).writeProject(projectDirectory, "synthetic");
+        resultsDirectory = workDirectory.resolve("output");
+        Path derivedModelDirectory = workDirectory.resolve("derived");
+
+        Properties properties = new Properties();
+        properties.setProperty("blankqm.filepath", "src/main/resources/pique-plc-customcode-definition.json");
+        properties.setProperty("benchmark.repo", workDirectory.resolve("benchmarks").toString());
+        properties.setProperty("results.directory", derivedModelDirectory.toString());
+        properties.setProperty("thresholds.store", "json");
+        properties.setProperty("metrics.column.findings", "false");
+        Path propertiesFile = workDirectory.resolve("benchmark.properties");
+        try (OutputStream out = Files.newOutputStream(propertiesFile)) {
+            properties.store(out, null);
+        }
+        new QualityModelDeriver(propertiesFile.toString());
+
+        try (Stream<Path> derivedFiles = Files.list(derivedModelDirectory)) {
+            derivedModel = derivedFiles.filter(file -> file.toString().endsWith(".json"))
+                    .max(Comparator.comparing(file -> file.toFile().lastModified()))
+                    .orElseThrow(() -> new IllegalStateException("No model derived in " + derivedModelDirectory));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteOutput() throws IOException {
+        BenchmarkFiles.deleteRecursively(workDirectory);
+    }
+
+    @Benchmark
+    public Path runEvaluator() {
+        return evaluator.runEvaluator(projectDirectory, resultsDirectory, derivedModel, tools);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package benchmark;
+
+import evaluation.MetricDiagnosticEvaluator;
+import model.MetricFinding;
+import model.PLCQualityModelImport;
+import org.openjdk.jmh.annotations.*;
+import pique.model.Diagnostic;
+import pique.model.Finding;
+import pique.model.QualityModel;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quality model import and metric diagnostic evaluation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ModelDefinition {
+        @Param({"src/main/resources/pique-plc-customcode-definition.json",
+                "src/main/resources/pique-plc-customcode-definition-full-model.json"})
+        public String modelDefinition;
+
+        Path modelPath;
+
+        @Setup(Level.Trial)
+        public void resolve() {
+            modelPath = Paths.get(modelDefinition);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MetricDiagnostic {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int findings;
+
+        Diagnostic diagnostic;
+
+        @Setup(Level.Trial)
+        public void attachFindings() {
+            diagnostic = new Diagnostic("Number of calls", "Number of calls", "CODESYS", new MetricDiagnosticEvaluator());
+            // fixed seed so every fork evaluates the same values
+            Random random = new Random(42);
+            for (int i = 0; i < findings; i++) {
+                Finding finding = new MetricFinding("synthetic-Metrics.csv", (double) random.nextInt(200), -1);
+                finding.setName("POU_" + i + " - Number of calls");
+                diagnostic.setChild(finding);
+            }
+        }
+    }
+
+    @Benchmark
+    public QualityModel importQualityModel(ModelDefinition model) {
+        return new PLCQualityModelImport(model.modelPath).importQualityModel();
+    }
+
+    @Benchmark
+    public BigDecimal evaluateMetricDiagnostic(MetricDiagnostic metricDiagnostic) {
+        return metricDiagnostic.diagnostic.getEval_strategyObj().evaluate(metricDiagnostic.diagnostic);
+    }
+}
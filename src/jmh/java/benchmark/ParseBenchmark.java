@@ -0,0 +1,77 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package benchmark;
+
+import com.google.common.collect.Table;
+import org.openjdk.jmh.annotations.*;
+import tool.CODESYSWrapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of synthetic CODESYS rules and metrics output, from 10^3 to 10^6 findings per file
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int findings;
+
+    private final CODESYSWrapper codesysWrapper = new CODESYSWrapper();
+    private Path projectDirectory;
+    private Path rulesFile;
+    private Path metricsFile;
+
+    @Setup(Level.Trial)
+    public void generateOutput() throws IOException {
+        projectDirectory = Files.createTempDirectory("codesys-parse");
+        BenchmarkFiles.generatorFor(findings).writeProject(projectDirectory, "synthetic");
+        rulesFile = projectDirectory.resolve("CODESYS-synthetic-StaticAnalysisOutput.txt");
+        metricsFile = projectDirectory.resolve("CODESYS-synthetic-Metrics.csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteOutput() throws IOException {
+        BenchmarkFiles.deleteRecursively(projectDirectory);
+    }
+
+    @Benchmark
+    public List<List<String>> parseRules() {
+        return codesysWrapper.parseRules(rulesFile);
+    }
+
+    @Benchmark
+    public Table<String, String, Double> parseMetrics() {
+        return codesysWrapper.parseMetrics(metricsFile);
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package calibration;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local store of the measure values of every benchmark project, so a derivation only has to parse projects that were
+ * added or changed since the last one. A project is identified by its path and fingerprinted by the name, size and
+ * modification time of its files together with a key of the model and configuration the values were measured with.
+ *
+ * One properties file is kept per project, so parallel workers never write the same file. Entries of projects no
+ * longer in the benchmark repository are dropped by {@link #retainOnly(Collection)}.
+ */
+public class BenchmarkMeasureStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BenchmarkMeasureStore.class);
+
+    private static final String PROJECT_PROPERTY = "project";
+    private static final String FINGERPRINT_PROPERTY = "fingerprint";
+    private static final String MEASURE_PREFIX = "measure.";
+    private static final String ENTRY_EXTENSION = ".properties";
+
+    private final Path storeDirectory;
+    private final String modelKey;
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger measured = new AtomicInteger();
+
+    /**
+     * @param storeDirectory directory the per-project entries are kept in
+     * @param modelKey identifies the model and configuration measure values were computed with, entries stored
+     *                 under another key are measured again
+     */
+    public BenchmarkMeasureStore(Path storeDirectory, String modelKey) {
+        this.storeDirectory = storeDirectory;
+        this.modelKey = modelKey;
+    }
+
+    /**
+     * @return fingerprint of projectPath's files and the model key. Only file metadata is read, so fingerprinting a
+     * large benchmark repository does not read the tool output itself
+     */
+    public String fingerprint(Path projectPath) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(modelKey, StandardCharsets.UTF_8);
+        File[] files = projectPath.toFile().listFiles();
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                hasher.putString(file.getName(), StandardCharsets.UTF_8)
+                        .putLong(file.length())
+                        .putLong(file.lastModified());
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * @return the measure values stored for projectPath, or null if there are none for this fingerprint
+     */
+    public Map<String, BigDecimal> load(Path projectPath, String fingerprint) {
+        Path entryFile = entryFile(projectPath);
+        if (!Files.isRegularFile(entryFile)) {
+            return null;
+        }
+        Properties entry = new Properties();
+        try (InputStream in = Files.newInputStream(entryFile)) {
+            entry.load(in);
+        } catch (IOException e) {
+            LOGGER.error("Could not read benchmark measures " + entryFile, e);
+            return null;
+        }
+        if (!fingerprint.equals(entry.getProperty(FINGERPRINT_PROPERTY))
+                || !projectKey(projectPath).equals(entry.getProperty(PROJECT_PROPERTY))) {
+            return null;
+        }
+        Map<String, BigDecimal> measureValues = new HashMap<>();
+        for (String name : entry.stringPropertyNames()) {
+            if (name.startsWith(MEASURE_PREFIX)) {
+                String value = entry.getProperty(name);
+                measureValues.put(name.substring(MEASURE_PREFIX.length()), value.isEmpty() ? null : new BigDecimal(value));
+            }
+        }
+        reused.incrementAndGet();
+        return measureValues;
+    }
+
+    /**
+     * Stores the measure values of projectPath under fingerprint, replacing any earlier entry
+     */
+    public void save(Path projectPath, String fingerprint, Map<String, BigDecimal> measureValues) {
+        measured.incrementAndGet();
+        Properties entry = new Properties();
+        entry.setProperty(PROJECT_PROPERTY, projectKey(projectPath));
+        entry.setProperty(FINGERPRINT_PROPERTY, fingerprint);
+        // measures without a value are kept as empty so reloaded vectors match freshly measured ones
+        measureValues.forEach((name, value) -> entry.setProperty(MEASURE_PREFIX + name, value == null ? "" : value.toString()));
+        try {
+            Files.createDirectories(storeDirectory);
+            Path entryFile = entryFile(projectPath);
+            Path temporary = Files.createTempFile(storeDirectory, entryFile.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                entry.store(out, null);
+            }
+            Files.move(temporary, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // a lost entry only costs parsing the project again next derivation
+            LOGGER.error("Could not store benchmark measures of " + projectPath + " in " + storeDirectory, e);
+        }
+    }
+
+    /**
+     * Deletes the entries of every project not in projectPaths, i.e. projects removed from the benchmark repository
+     *
+     * @return number of entries deleted
+     */
+    public int retainOnly(Collection<Path> projectPaths) {
+        if (!Files.isDirectory(storeDirectory)) {
+            return 0;
+        }
+        Set<Path> retained = new HashSet<>();
+        for (Path projectPath : projectPaths) {
+            retained.add(entryFile(projectPath));
+        }
+        int removed = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(storeDirectory, "*" + ENTRY_EXTENSION)) {
+            for (Path entryFile : entries) {
+                if (!retained.contains(entryFile)) {
+                    Files.delete(entryFile);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Could not prune benchmark measures in " + storeDirectory, e);
+        }
+        return removed;
+    }
+
+    public int getReused() {
+        return reused.get();
+    }
+
+    public int getMeasured() {
+        return measured.get();
+    }
+
+    private static String projectKey(Path projectPath) {
+        return projectPath.toAbsolutePath().normalize().toString();
+    }
+
+    private Path entryFile(Path projectPath) {
+        String projectHash = Hashing.sha256().hashString(projectKey(projectPath), StandardCharsets.UTF_8).toString();
+        return storeDirectory.resolve(projectHash.substring(0, 32) + ENTRY_EXTENSION);
+    }
+}
@@ -23,16 +23,58 @@
  */
 package calibration;
 
+import evaluation.DensityTableUtilityFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pique.analysis.ITool;
 import pique.calibration.AbstractBenchmarker;
 import pique.calibration.IBenchmarker;
 import pique.calibration.ProbabilityDensityFunctionBenchmarker;
+import pique.evaluation.Project;
+import pique.model.Diagnostic;
+import pique.model.ModelNode;
+import pique.model.QualityModel;
+import utilities.PhaseMetrics;
 
 import java.io.File;
 import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class PLCBenchmarker extends AbstractBenchmarker implements IBenchmarker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PLCBenchmarker.class);
+
+    // number of benchmark projects parsed at the same time
+    private final int parallelism;
+
+    // per-project measure values kept between derivations, null parses every project on every derivation
+    private final BenchmarkMeasureStore measureStore;
+
+    // per-phase timings of every parsed benchmark project are appended here, null when phase metrics are off
+    private final Path phaseMetricsFile;
+
+    /**
+     * Benchmarker as instanced by name from the quality model definition: one project at a time, no measure store
+     * and no phase metrics
+     */
+    public PLCBenchmarker() {
+        this(1, null, null);
+    }
+
+    /**
+     * @param parallelism number of benchmark projects parsed at the same time
+     * @param measureStore per-project measure values kept between derivations, null to parse every project
+     * @param phaseMetricsFile file the phase timings of every parsed project are appended to, null for none
+     */
+    public PLCBenchmarker(int parallelism, BenchmarkMeasureStore measureStore, Path phaseMetricsFile) {
+        this.parallelism = Math.max(1, parallelism);
+        this.measureStore = measureStore;
+        this.phaseMetricsFile = phaseMetricsFile;
+    }
 
     @Override
     public String getName(){
@@ -50,6 +92,115 @@ public class PLCBenchmarker extends AbstractBenchmarker implements IBenchmarker
         return projectRoots;
     }
 
+    /**
+     * Parses every benchmark project on a work-stealing pool. Each worker reduces its project to a map of measure
+     * values, and those maps are merged into measureBenchmarkData in project path order once the workers finish.
+     * Workers never share mutable state, and the derived thresholds do not depend on scheduling.
+     *
+     * With a {@link BenchmarkMeasureStore} set, projects whose files are unchanged since the last derivation are read
+     * back from the store instead of being parsed, and entries of removed projects are dropped.
+     */
+    @Override
+    public Map<String, BigDecimal[]> deriveThresholds(Path benchmarkRepository, QualityModel qmDescription, Set<ITool> tools, String projectRootFlag) {
+        List<Path> projectRoots = new ArrayList<>(CollectProjectPaths(benchmarkRepository, projectRootFlag));
+        Collections.sort(projectRoots);
+        LOGGER.info("Parsing " + projectRoots.size() + " benchmark projects with parallelism " + parallelism);
+
+        BenchmarkMeasureStore store = measureStore;
+        ExecutorService pool = Executors.newWorkStealingPool(parallelism);
+        try {
+            List<Future<Map<String, BigDecimal>>> projectMeasures = new ArrayList<>();
+            for (Path projectPath : projectRoots) {
+                projectMeasures.add(pool.submit(() -> store == null
+                        ? measureProject(projectPath, qmDescription, tools)
+                        : measureProjectIncrementally(store, projectPath, qmDescription, tools)));
+            }
+
+            Map<String, ArrayList<BigDecimal>> measureBenchmarkData = new HashMap<>();
+            for (Future<Map<String, BigDecimal>> measures : projectMeasures) {
+                measures.get().forEach((measureName, measureValue) -> measureBenchmarkData
+                        .computeIfAbsent(measureName, k -> new ArrayList<>(projectRoots.size()))
+                        .add(measureValue));
+            }
+            if (store != null) {
+                int removed = store.retainOnly(projectRoots);
+                LOGGER.info("Benchmark measure store: " + store.getReused() + " projects reused, "
+                        + store.getMeasured() + " parsed, " + removed + " removed");
+            }
+            Map<String, BigDecimal[]> measureThresholds = calculateThresholds(measureBenchmarkData);
+            tabulateDensityMeasures(qmDescription, measureBenchmarkData, measureThresholds);
+            return measureThresholds;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to parse benchmark project", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Map<String, BigDecimal> measureProjectIncrementally(BenchmarkMeasureStore store, Path projectPath,
+                                                                QualityModel qmDescription, Set<ITool> tools) {
+        String fingerprint = store.fingerprint(projectPath);
+        Map<String, BigDecimal> measureValues = store.load(projectPath, fingerprint);
+        if (measureValues == null) {
+            measureValues = measureProject(projectPath, qmDescription, tools);
+            store.save(projectPath, fingerprint, measureValues);
+        }
+        return measureValues;
+    }
+
+    /**
+     * Runs the tools over a single benchmark project and collects the value of every measure in the quality model.
+     * The project itself is dropped once its measure values are read.
+     */
+    private Map<String, BigDecimal> measureProject(Path projectPath, QualityModel qmDescription, Set<ITool> tools) {
+        Path metricsFile = phaseMetricsFile;
+        PhaseMetrics phaseMetrics = metricsFile == null ? null : PhaseMetrics.begin("benchmark", projectPath.toString());
+        try {
+            QualityModel projectQualityModel;
+            synchronized (qmDescription) {
+                projectQualityModel = qmDescription.clone();
+            }
+            Project project = new Project(projectPath.getFileName().toString(), projectPath, projectQualityModel);
+
+            Map<String, Diagnostic> allDiagnostics = new HashMap<>();
+            tools.forEach(tool -> {
+                Path analysisOutput = tool.analyze(projectPath);
+                allDiagnostics.putAll(tool.parseAnalysis(analysisOutput));
+            });
+            PhaseMetrics.measure("updateDiagnosticsWithFindings", () -> project.updateDiagnosticsWithFindings(allDiagnostics));
+
+            Map<String, BigDecimal> measureValues = new HashMap<>();
+            for (ModelNode measure : project.getQualityModel().getMeasures().values()) {
+                measureValues.put(measure.getName(), measure.getValue());
+            }
+            return measureValues;
+        } finally {
+            if (phaseMetrics != null) {
+                // pool threads are reused, do not leave the record attached
+                PhaseMetrics.end();
+                phaseMetrics.writeTo(metricsFile);
+            }
+        }
+    }
+
+    /**
+     * Measures whose model definition uses {@link DensityTableUtilityFunction} get a precomputed density table as
+     * their thresholds instead of every raw benchmark value.
+     */
+    private void tabulateDensityMeasures(QualityModel qmDescription, Map<String, ArrayList<BigDecimal>> measureBenchmarkData,
+                                         Map<String, BigDecimal[]> measureThresholds) {
+        for (ModelNode measure : qmDescription.getMeasures().values()) {
+            ArrayList<BigDecimal> measureValues = measureBenchmarkData.get(measure.getName());
+            if (measure.getUtility_function() instanceof DensityTableUtilityFunction && measureValues != null) {
+                measureThresholds.put(measure.getName(),
+                        DensityTableUtilityFunction.buildTable(measureValues, DensityTableUtilityFunction.DEFAULT_RESOLUTION));
+            }
+        }
+    }
+
     @Override
     public Map<String, BigDecimal[]> calculateThresholds(Map<String, ArrayList<BigDecimal>> measureBenchmarkData) {
         //for the pdf function, store all values as the thresholds. PDF function operation occurs in the evaluator run
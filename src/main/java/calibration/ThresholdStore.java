@@ -0,0 +1,241 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package calibration;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import evaluation.DensityTableUtilityFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pique.model.ModelNode;
+import pique.model.QualityModel;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Arrays;
+
+/**
+ * Binary sidecar store for measure thresholds. The PDF utility function uses every benchmark value as a threshold,
+ * which makes the derived model json grow with the benchmark repository. Instead, the deriver can write the
+ * thresholds of each measure as sorted doubles to this store, and the model json only references the file.
+ * The store is memory-mapped on import, and each measure's thresholds are read only when that measure is evaluated.
+ *
+ * File layout: magic, version, measure count, then per measure the UTF-8 name length and bytes, value count, values.
+ */
+public class ThresholdStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThresholdStore.class);
+
+    // key added to the top level of a derived model json that references its threshold store
+    public static final String MODEL_REFERENCE_KEY = "threshold_store";
+    private static final int MAGIC = 0x50515453; // "PQTS"
+    private static final int VERSION = 1;
+
+    private final Path storePath;
+    private final MappedByteBuffer buffer;
+    // measure name -> {byte offset of first value, number of values}
+    private final Map<String, int[]> index = new HashMap<>();
+
+    private ThresholdStore(Path storePath) throws IOException {
+        this.storePath = storePath;
+        try (FileChannel channel = FileChannel.open(storePath, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " threshold store: " + storePath);
+        }
+        int measureCount = buffer.getInt(8);
+        int position = 12;
+        for (int i = 0; i < measureCount; i++) {
+            int nameLength = buffer.getInt(position);
+            byte[] name = new byte[nameLength];
+            for (int j = 0; j < nameLength; j++) {
+                name[j] = buffer.get(position + 4 + j);
+            }
+            position += 4 + nameLength;
+            int valueCount = buffer.getInt(position);
+            position += 4;
+            index.put(new String(name, StandardCharsets.UTF_8), new int[]{position, valueCount});
+            position += valueCount * Double.BYTES;
+        }
+    }
+
+    /**
+     * @param storePath path to a threshold store written by {@link #write(Path, Map)}
+     * @return the memory-mapped store
+     */
+    public static ThresholdStore open(Path storePath) throws IOException {
+        return new ThresholdStore(storePath);
+    }
+
+    /**
+     * Writes the thresholds of each measure to storePath as sorted doubles.
+     *
+     * @param storePath file to write
+     * @param measureThresholds thresholds keyed by measure name
+     */
+    public static void write(Path storePath, Map<String, BigDecimal[]> measureThresholds) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(storePath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(measureThresholds.size());
+            for (Map.Entry<String, BigDecimal[]> measure : measureThresholds.entrySet()) {
+                byte[] name = measure.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+
+                BigDecimal[] thresholds = measure.getValue() == null ? new BigDecimal[0] : measure.getValue();
+                double[] values = new double[thresholds.length];
+                for (int i = 0; i < thresholds.length; i++) {
+                    values[i] = thresholds[i].doubleValue();
+                }
+                Arrays.sort(values);
+                out.writeInt(values.length);
+                for (double value : values) {
+                    out.writeDouble(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the thresholds of every measure in qualityModel into a store at storePath, leaving the measures with
+     * empty thresholds so the model json exported afterwards stays small. Call {@link #linkToModel(Path, Path)}
+     * once the model json is written. Precomputed density tables are fixed size and ordered, so they stay inline.
+     */
+    public static void detachThresholds(QualityModel qualityModel, Path storePath) throws IOException {
+        Map<String, BigDecimal[]> measureThresholds = new HashMap<>();
+        for (ModelNode measure : qualityModel.getMeasures().values()) {
+            if (measure.getUtility_function() instanceof DensityTableUtilityFunction) {
+                continue;
+            }
+            measureThresholds.put(measure.getName(), measure.getThresholds());
+            measure.setThresholds(new BigDecimal[0]);
+        }
+        write(storePath, measureThresholds);
+        LOGGER.info("Wrote thresholds of " + measureThresholds.size() + " measures to " + storePath);
+    }
+
+    /**
+     * Adds a reference to storePath, relative to the model file, at the top level of the model json at modelPath
+     */
+    public static void linkToModel(Path modelPath, Path storePath) throws IOException {
+        JsonObject model;
+        try (Reader reader = Files.newBufferedReader(modelPath, StandardCharsets.UTF_8)) {
+            model = JsonParser.parseReader(reader).getAsJsonObject();
+        }
+        Path modelDirectory = modelPath.toAbsolutePath().getParent();
+        model.addProperty(MODEL_REFERENCE_KEY, modelDirectory.relativize(storePath.toAbsolutePath()).toString());
+        try (Writer writer = Files.newBufferedWriter(modelPath, StandardCharsets.UTF_8)) {
+            // keep the derived model as readable as PIQUE writes it
+            new GsonBuilder().setPrettyPrinting().create().toJson(model, writer);
+        }
+    }
+
+    /**
+     * Looks for a threshold store reference in the model json at modelPath without building the json tree.
+     *
+     * @return the opened store, or null if the model keeps its thresholds inline
+     */
+    public static ThresholdStore forModel(Path modelPath) {
+        Path storePath = storePathOf(modelPath);
+        if (storePath == null) {
+            return null;
+        }
+        try {
+            return open(storePath);
+        } catch (IOException e) {
+            throw new RuntimeException("Quality model " + modelPath + " references threshold store " + storePath
+                    + " which could not be read", e);
+        }
+    }
+
+    /**
+     * @return the path of the threshold store referenced by the model json at modelPath, or null if the model keeps
+     * its thresholds inline
+     */
+    public static Path storePathOf(Path modelPath) {
+        String reference = null;
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(modelPath, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (MODEL_REFERENCE_KEY.equals(reader.nextName())) {
+                    reference = reader.nextString();
+                    break;
+                }
+                reader.skipValue();
+            }
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.error("Could not scan " + modelPath + " for a threshold store reference", e);
+            return null;
+        }
+        return reference == null ? null : modelPath.toAbsolutePath().getParent().resolve(reference);
+    }
+
+    /**
+     * @param measureName name of a measure in the model
+     * @return the sorted thresholds of measureName, or null if the store does not hold that measure
+     */
+    public double[] getValues(String measureName) {
+        int[] location = index.get(measureName);
+        if (location == null) {
+            return null;
+        }
+        double[] values = new double[location[1]];
+        for (int i = 0; i < values.length; i++) {
+            // absolute reads leave the shared buffer's position untouched, so concurrent readers are safe
+            values[i] = buffer.getDouble(location[0] + i * Double.BYTES);
+        }
+        return values;
+    }
+
+    /**
+     * @param measureName name of a measure in the model
+     * @return the sorted thresholds of measureName as BigDecimals, or null if the store does not hold that measure
+     */
+    public BigDecimal[] getThresholds(String measureName) {
+        double[] values = getValues(measureName);
+        if (values == null) {
+            return null;
+        }
+        BigDecimal[] thresholds = new BigDecimal[values.length];
+        for (int i = 0; i < values.length; i++) {
+            thresholds[i] = BigDecimal.valueOf(values[i]);
+        }
+        return thresholds;
+    }
+
+    public Path getStorePath() {
+        return storePath;
+    }
+}
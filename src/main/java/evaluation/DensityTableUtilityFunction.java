@@ -0,0 +1,203 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package evaluation;
+
+import pique.evaluation.IUtilityFunction;
+import pique.utility.BigDecimalWithContext;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utility function backed by a cumulative distribution table that is precomputed at derivation time.
+ * The table is the CDF of a gaussian kernel density estimate over the benchmark values of a measure, sampled at a
+ * fixed number of evenly spaced points. Evaluation is a binary search and a linear interpolation in that table, so
+ * its cost no longer depends on the number of benchmark projects.
+ *
+ * The thresholds of a measure using this utility function hold the table as resolution grid points followed by the
+ * resolution CDF values at those points, see {@link #buildTable(List, int)}.
+ */
+public class DensityTableUtilityFunction implements IUtilityFunction {
+
+    public static final int DEFAULT_RESOLUTION = 512;
+    // kernels further than this many bandwidths from a point contribute exactly 0 or 1 to its CDF
+    private static final double KERNEL_CUTOFF = 8.0;
+
+    private final String name = this.getClass().getCanonicalName();
+    private final String description = "Kernel density CDF of the benchmark data, precomputed as a lookup table during derivation";
+
+    // decoded form of the last thresholds array seen, clones of a measure share the same thresholds array
+    private transient volatile DecodedTable decodedTable;
+
+    /**
+     * @param inValue the measure value
+     * @param thresholds the table written by {@link #buildTable(List, int)}
+     * @param positive whether a higher measure value is better
+     * @return the share of the benchmark distribution below inValue when positive, or above it otherwise
+     */
+    @Override
+    public BigDecimal utilityFunction(BigDecimal inValue, BigDecimal[] thresholds, boolean positive) {
+        if (thresholds == null || thresholds.length < 2) {
+            // no table yet, e.g. while benchmarking, so pass the value through
+            return inValue;
+        }
+        DecodedTable table = decodedTable;
+        if (table == null || table.source != thresholds) {
+            table = new DecodedTable(thresholds);
+            decodedTable = table;
+        }
+        double cdf = table.cdfAt(inValue.doubleValue());
+        return new BigDecimalWithContext(positive ? cdf : 1.0 - cdf);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Builds the CDF table of a gaussian kernel density estimate over the benchmark values of a measure.
+     * The bandwidth follows Silverman's rule of thumb, and the table spans four bandwidths past either extreme.
+     *
+     * @param benchmarkValues the value of the measure in every benchmark project
+     * @param resolution number of grid points in the table
+     * @return resolution grid points followed by the resolution CDF values at those points
+     */
+    public static BigDecimal[] buildTable(List<BigDecimal> benchmarkValues, int resolution) {
+        int n = benchmarkValues.size();
+        if (n == 0) {
+            return new BigDecimal[0];
+        }
+        double[] samples = new double[n];
+        for (int i = 0; i < n; i++) {
+            samples[i] = benchmarkValues.get(i).doubleValue();
+        }
+        Arrays.sort(samples);
+
+        double bandwidth = silvermanBandwidth(samples);
+        double low = samples[0] - 4 * bandwidth;
+        double high = samples[n - 1] + 4 * bandwidth;
+        double step = (high - low) / (resolution - 1);
+
+        BigDecimal[] table = new BigDecimal[2 * resolution];
+        for (int i = 0; i < resolution; i++) {
+            double x = i == resolution - 1 ? high : low + i * step;
+            // samples below this index lie far enough left of x to count fully, samples from upper on do not count
+            int lower = lowerBound(samples, x - KERNEL_CUTOFF * bandwidth);
+            int upper = lowerBound(samples, x + KERNEL_CUTOFF * bandwidth);
+            double mass = lower;
+            for (int j = lower; j < upper; j++) {
+                mass += standardNormalCdf((x - samples[j]) / bandwidth);
+            }
+            table[i] = BigDecimal.valueOf(x);
+            table[resolution + i] = BigDecimal.valueOf(Math.min(1.0, mass / n));
+        }
+        return table;
+    }
+
+    private static double silvermanBandwidth(double[] sortedSamples) {
+        int n = sortedSamples.length;
+        double mean = 0;
+        for (double sample : sortedSamples) {
+            mean += sample;
+        }
+        mean /= n;
+        double variance = 0;
+        for (double sample : sortedSamples) {
+            variance += (sample - mean) * (sample - mean);
+        }
+        double standardDeviation = n > 1 ? Math.sqrt(variance / (n - 1)) : 0;
+        double interQuartileRange = sortedSamples[(3 * (n - 1)) / 4] - sortedSamples[(n - 1) / 4];
+
+        double spread = standardDeviation;
+        if (interQuartileRange > 0) {
+            spread = Math.min(standardDeviation, interQuartileRange / 1.34);
+        }
+        double bandwidth = 0.9 * spread * Math.pow(n, -0.2);
+        if (bandwidth <= 0) {
+            // every benchmark project had the same value, fall back to a narrow kernel around it
+            bandwidth = Math.max(Math.abs(mean), 1.0) * 1e-3;
+        }
+        return bandwidth;
+    }
+
+    // index of the first element of sorted that is >= value
+    private static int lowerBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Abramowitz and Stegun 7.1.26, absolute error below 1.5e-7
+    private static double standardNormalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1.0 / (1.0 + 0.3275911 * x);
+        double erf = 1.0 - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t
+                + 0.254829592) * t * Math.exp(-x * x);
+        return z >= 0 ? 0.5 * (1.0 + erf) : 0.5 * (1.0 - erf);
+    }
+
+    private static class DecodedTable {
+        private final BigDecimal[] source;
+        private final double[] grid;
+        private final double[] cdf;
+
+        private DecodedTable(BigDecimal[] thresholds) {
+            this.source = thresholds;
+            int resolution = thresholds.length / 2;
+            this.grid = new double[resolution];
+            this.cdf = new double[resolution];
+            for (int i = 0; i < resolution; i++) {
+                grid[i] = thresholds[i].doubleValue();
+                cdf[i] = thresholds[resolution + i].doubleValue();
+            }
+        }
+
+        private double cdfAt(double x) {
+            if (x <= grid[0]) {
+                return cdf[0];
+            }
+            int last = grid.length - 1;
+            if (x >= grid[last]) {
+                return cdf[last];
+            }
+            int upper = lowerBound(grid, x);
+            int lower = upper - 1;
+            double fraction = (x - grid[lower]) / (grid[upper] - grid[lower]);
+            return cdf[lower] + fraction * (cdf[upper] - cdf[lower]);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package evaluation;
+
+import pique.evaluation.IEvaluator;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves eval_strategy class names to evaluator instances. An evaluator class declaring no instance fields, in
+ * itself or any superclass, holds no per-node state; such evaluators are created once and shared by every node that
+ * uses them, so hundreds of thousands of findings do not each carry their own copy.
+ * Any other evaluator gets a new instance per request, as before.
+ */
+public class EvaluatorRegistry {
+
+    // canonical class name to whether instances of the class may be shared
+    private static final Map<String, Boolean> STATELESS_EVALUATORS = new ConcurrentHashMap<>();
+    private static final Map<String, IEvaluator> SHARED_EVALUATORS = new ConcurrentHashMap<>();
+
+    /**
+     * Marks an evaluator class as holding no per-node state, so a single instance may be shared even though the
+     * class declares instance fields
+     *
+     * @param className canonical class name as used for eval_strategy in the model definition
+     */
+    public static void registerStateless(String className) {
+        STATELESS_EVALUATORS.put(className, true);
+    }
+
+    /**
+     * @param className canonical class name as used for eval_strategy in the model definition
+     * @return true if the class was registered stateless or declares no instance fields
+     */
+    public static boolean isStateless(String className) {
+        Boolean stateless = STATELESS_EVALUATORS.get(className);
+        if (stateless != null) {
+            return stateless;
+        }
+        try {
+            return isStateless(Class.forName(className));
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param evaluatorClass the evaluator class
+     * @return true if the class was registered stateless or declares no instance fields
+     */
+    public static boolean isStateless(Class<?> evaluatorClass) {
+        return STATELESS_EVALUATORS.computeIfAbsent(evaluatorClass.getCanonicalName(), name -> hasNoInstanceFields(evaluatorClass));
+    }
+
+    /**
+     * @param evaluator an evaluator as loaded for a model node
+     * @return the shared instance of the evaluator's class if the class is stateless, otherwise the evaluator itself
+     */
+    public static IEvaluator share(IEvaluator evaluator) {
+        if (evaluator == null || !isStateless(evaluator.getClass())) {
+            return evaluator;
+        }
+        return SHARED_EVALUATORS.computeIfAbsent(evaluator.getClass().getCanonicalName(), name -> evaluator);
+    }
+
+    /**
+     * @param className canonical class name as used for eval_strategy in the model definition
+     * @return the shared instance for a stateless evaluator, otherwise a new instance
+     */
+    public static IEvaluator getEvaluator(String className) {
+        if (isStateless(className)) {
+            return SHARED_EVALUATORS.computeIfAbsent(className, EvaluatorRegistry::instantiate);
+        }
+        return instantiate(className);
+    }
+
+    /**
+     * @param evaluatorClass the evaluator class
+     * @return the shared instance for a stateless evaluator, otherwise a new instance
+     */
+    public static <T extends IEvaluator> T getEvaluator(Class<T> evaluatorClass) {
+        String className = evaluatorClass.getCanonicalName();
+        if (isStateless(evaluatorClass)) {
+            return evaluatorClass.cast(SHARED_EVALUATORS.computeIfAbsent(className, name -> instantiate(evaluatorClass)));
+        }
+        return instantiate(evaluatorClass);
+    }
+
+    private static boolean hasNoInstanceFields(Class<?> evaluatorClass) {
+        for (Class<?> c = evaluatorClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static IEvaluator instantiate(String className) {
+        try {
+            return instantiate(Class.forName(className).asSubclass(IEvaluator.class));
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new RuntimeException("Could not instance evaluator " + className, e);
+        }
+    }
+
+    private static <T extends IEvaluator> T instantiate(Class<T> evaluatorClass) {
+        try {
+            return evaluatorClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Could not instance evaluator " + evaluatorClass.getCanonicalName(), e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package evaluation;
+
+import model.MetricColumnFinding;
+import model.MetricFinding;
+import pique.evaluation.Evaluator;
+import pique.model.ModelNode;
+import pique.utility.BigDecimalWithContext;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Opt-in counterpart of {@link MetricDiagnosticEvaluator} that averages its children in primitive doubles.
+ * Metric values are read straight from {@link MetricFinding} children, so no BigDecimal is allocated per finding,
+ * and the sum is compensated (Kahan-Babuska) to keep the result within floating point tolerance of the BigDecimal path.
+ * Finding values are therefore left unset by the aggregate; exporters that write them call
+ * {@link #setFindingValues(Collection)} once before writing, so exported findings match the BigDecimal path.
+ * Select it with "eval_strategy": "evaluation.FastMetricDiagnosticEvaluator" on metric diagnostics.
+ */
+public class FastMetricDiagnosticEvaluator extends Evaluator {
+
+    @Override
+    public BigDecimal evaluate(ModelNode inNode) {
+        double sum = 0.0;
+        double compensation = 0.0;
+        int count = 0;
+        for (ModelNode x : inNode.getChildren().values()) {
+            if (x instanceof MetricColumnFinding) {
+                // a column finding stands for one value per POU
+                for (double value : ((MetricColumnFinding) x).getValues()) {
+                    double total = sum + value;
+                    compensation += compensationOf(sum, value, total);
+                    sum = total;
+                    count++;
+                }
+                continue;
+            }
+            double value = x instanceof MetricFinding
+                    ? ((MetricFinding) x).getMetricValue()
+                    : x.getValue().doubleValue();
+            double total = sum + value;
+            compensation += compensationOf(sum, value, total);
+            sum = total;
+            count++;
+        }
+        if (count == 0) {
+            return new BigDecimalWithContext("0.0");
+        }
+        return new BigDecimalWithContext((sum + compensation) / count);
+    }
+
+    /**
+     * Sets the value of every metric finding of the diagnostics evaluated by this evaluator, as evaluating the finding
+     * would. For the export path only, evaluation itself never needs the finding values.
+     *
+     * @param diagnostics diagnostics of an evaluated quality model
+     */
+    public static void setFindingValues(Collection<ModelNode> diagnostics) {
+        for (ModelNode diagnostic : diagnostics) {
+            if (!(diagnostic.getEval_strategyObj() instanceof FastMetricDiagnosticEvaluator)) {
+                continue;
+            }
+            for (ModelNode finding : diagnostic.getChildren().values()) {
+                if (finding instanceof MetricFinding) {
+                    finding.setValue(finding.getEval_strategyObj().evaluate(finding));
+                }
+            }
+        }
+    }
+
+    // low order bits lost when adding value to sum gave total
+    private static double compensationOf(double sum, double value, double total) {
+        return Math.abs(sum) >= Math.abs(value) ? (sum - total) + value : (value - total) + sum;
+    }
+}
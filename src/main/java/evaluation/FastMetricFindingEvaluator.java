@@ -0,0 +1,44 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package evaluation;
+
+import model.MetricFinding;
+import pique.evaluation.Evaluator;
+import pique.model.ModelNode;
+
+import java.math.BigDecimal;
+
+/**
+ * Finding side of the fast-math evaluator pair. Metric findings of a diagnostic evaluated by
+ * {@link FastMetricDiagnosticEvaluator} use this evaluator, which converts the metric value with
+ * {@link BigDecimal#valueOf(double)} instead of expanding it under the PIQUE math context.
+ */
+public class FastMetricFindingEvaluator extends Evaluator {
+
+    @Override
+    public BigDecimal evaluate(ModelNode inNode) {
+        MetricFinding node = (MetricFinding) inNode;
+        return BigDecimal.valueOf(node.getMetricValue());
+    }
+}
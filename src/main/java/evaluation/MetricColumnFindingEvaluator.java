@@ -0,0 +1,59 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package evaluation;
+
+import model.MetricColumnFinding;
+import pique.evaluation.Evaluator;
+import pique.model.ModelNode;
+import pique.utility.BigDecimalWithContext;
+
+import java.math.BigDecimal;
+
+/**
+ * Evaluates a {@link MetricColumnFinding} to the mean of its column, using the same BigDecimal arithmetic
+ * {@link MetricDiagnosticEvaluator} applies to one {@link model.MetricFinding} per POU.
+ */
+public class MetricColumnFindingEvaluator extends Evaluator {
+
+    @Override
+    public BigDecimal evaluate(ModelNode inNode) {
+        double[] values = ((MetricColumnFinding) inNode).getValues();
+        BigDecimal rawSum = sum(values);
+        if (values.length == 0) {
+            return rawSum;
+        }
+        return rawSum.divide(new BigDecimalWithContext(values.length), BigDecimalWithContext.getMC());
+    }
+
+    /**
+     * @return the BigDecimal sum of values, added in order as if each were the value of its own finding
+     */
+    public static BigDecimal sum(double[] values) {
+        BigDecimal rawSum = new BigDecimalWithContext("0.0");
+        for (double value : values) {
+            rawSum = rawSum.add(new BigDecimalWithContext(value));
+        }
+        return rawSum;
+    }
+}
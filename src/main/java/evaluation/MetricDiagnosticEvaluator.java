@@ -23,6 +23,7 @@
  */
 package evaluation;
 
+import model.MetricColumnFinding;
 import pique.evaluation.Evaluator;
 import pique.model.ModelNode;
 import pique.utility.BigDecimalWithContext;
@@ -36,13 +37,22 @@ public class MetricDiagnosticEvaluator extends Evaluator {
     public BigDecimal evaluate(ModelNode inNode) {
 
         BigDecimal rawSum = new BigDecimalWithContext("0.0");
+        int count = 0;
 
         for (ModelNode x : inNode.getChildren().values()) {
-            rawSum = rawSum.add(x.getValue());
+            if (x instanceof MetricColumnFinding) {
+                // a column finding stands for one value per POU
+                double[] values = ((MetricColumnFinding) x).getValues();
+                rawSum = rawSum.add(MetricColumnFindingEvaluator.sum(values));
+                count += values.length;
+            } else {
+                rawSum = rawSum.add(x.getValue());
+                count++;
+            }
         }
-        if (inNode.getNumChildren() == 0){
+        if (count == 0){
             return rawSum;
         }
-        return rawSum.divide(new BigDecimalWithContext(inNode.getNumChildren()), BigDecimalWithContext.getMC());
+        return rawSum.divide(new BigDecimalWithContext(count), BigDecimalWithContext.getMC());
     }
 }
@@ -0,0 +1,65 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package evaluation;
+
+import calibration.ThresholdStore;
+import pique.evaluation.IUtilityFunction;
+
+import java.math.BigDecimal;
+
+/**
+ * Wraps a measure's utility function so its thresholds are read from a {@link ThresholdStore} when the measure is
+ * evaluated, instead of being held on the measure for the lifetime of the model.
+ */
+public class StoredThresholdsUtilityFunction implements IUtilityFunction {
+
+    // only name and description are exported with the model, the remaining fields are runtime state
+    private final String name;
+    private final String description;
+    private final transient IUtilityFunction utilityFunction;
+    private final transient ThresholdStore thresholdStore;
+    private final transient String measureName;
+
+    public StoredThresholdsUtilityFunction(IUtilityFunction utilityFunction, ThresholdStore thresholdStore, String measureName) {
+        this.utilityFunction = utilityFunction;
+        this.thresholdStore = thresholdStore;
+        this.measureName = measureName;
+        this.name = utilityFunction.getName();
+        this.description = "Thresholds read on demand from a binary threshold store for " + name;
+    }
+
+    @Override
+    public BigDecimal utilityFunction(BigDecimal inValue, BigDecimal[] thresholds, boolean positive) {
+        BigDecimal[] storedThresholds = thresholdStore.getThresholds(measureName);
+        return utilityFunction.utilityFunction(inValue, storedThresholds == null ? thresholds : storedThresholds, positive);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -64,12 +64,14 @@ public class CODESYSRuleDiagnostic extends Diagnostic {
     }
     @Override
     public ModelNode clone() {
+        // built through the toolName constructor so copies handed out by QualityModelCache keep their tool association
+        CODESYSRuleDiagnostic clonedDiagnostic = new CODESYSRuleDiagnostic(getName(), getDescription(), getToolName(),
+                this.getEval_strategyObj(), this.getNormalizerObj(), this.getUtility_function(), getWeights(),
+                getThresholds(), this.importance);
+        clonedDiagnostic.setValue(getValue());
+        getChildren().forEach((k, v) -> clonedDiagnostic.getChildren().put(k, v.clone()));
 
-        Map<String, ModelNode> clonedChildren = new HashMap<>();
-        getChildren().forEach((k, v) -> clonedChildren.put(k, v.clone()));
-
-        return new CODESYSRuleDiagnostic(getValue(), getName(), getDescription(), this.getEval_strategyObj(), this.getNormalizerObj(),
-                this.getUtility_function(), getWeights(), getThresholds(), clonedChildren, this.importance);
+        return clonedDiagnostic;
     }
 
     @Override
@@ -0,0 +1,61 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package model;
+
+import evaluation.EvaluatorRegistry;
+import evaluation.MetricColumnFindingEvaluator;
+import lombok.Getter;
+import pique.model.Finding;
+
+/**
+ * A single finding standing for one metric column of a {@link MetricMatrix}, used in place of one
+ * {@link MetricFinding} per POU. Metric diagnostic evaluators weigh it by the number of POUs it covers, so a
+ * diagnostic evaluates to the same mean either way.
+ */
+public class MetricColumnFinding extends Finding {
+
+    // the matrix is runtime state, the evaluated column mean is exported through the node value
+    private final transient MetricMatrix metricMatrix;
+    @Getter
+    private final int column;
+
+    public MetricColumnFinding(String filePath, MetricMatrix metricMatrix, int column, int severity) {
+        super(filePath, 0, 0, severity);
+        this.metricMatrix = metricMatrix;
+        this.column = column;
+        this.eval_strategy = "evaluation.MetricColumnFindingEvaluator";
+        this.eval_strategyObj = EvaluatorRegistry.getEvaluator(MetricColumnFindingEvaluator.class);
+    }
+
+    /**
+     * @return the value of this metric for every POU, indexed by POU
+     */
+    public double[] getValues() {
+        return metricMatrix.getColumn(column);
+    }
+
+    public String getPouName(int pou) {
+        return metricMatrix.getPouName(pou);
+    }
+}
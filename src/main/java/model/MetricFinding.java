@@ -23,9 +23,11 @@
  */
 package model;
 
+import evaluation.EvaluatorRegistry;
 import evaluation.MetricFindingEvaluator;
 import lombok.Getter;
 import lombok.Setter;
+import pique.evaluation.IEvaluator;
 import pique.model.Finding;
 
 public class MetricFinding extends Finding {
@@ -37,6 +39,13 @@ public class MetricFinding extends Finding {
         super(filePath, 0, 0, severity);
         this.metricValue = metricValue;
         this.eval_strategy = "evaluation.MetricFindingEvaluator";
-        this.eval_strategyObj = new MetricFindingEvaluator();
+        this.eval_strategyObj = EvaluatorRegistry.getEvaluator(MetricFindingEvaluator.class);
+    }
+
+    public MetricFinding(String filePath, Double metricValue, int severity, IEvaluator evaluator) {
+        super(filePath, 0, 0, severity);
+        this.metricValue = metricValue;
+        this.eval_strategy = evaluator.getClass().getCanonicalName();
+        this.eval_strategyObj = evaluator;
     }
 }
@@ -0,0 +1,129 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package model;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Table;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense, column-oriented store of the metrics CODESYS reports for each POU.
+ * values[metric][pou] holds the value of one metric for one POU, with empty cells stored as 0.
+ * POU and metric names are interned, so the same names repeated across projects share one String instance.
+ */
+public class MetricMatrix {
+
+    private static final Interner<String> NAMES = Interners.newWeakInterner();
+
+    private final String[] pouNames;
+    private final String[] metricNames;
+    private final double[][] values;
+    private final Map<String, Integer> pouIndex;
+    private final Map<String, Integer> metricIndex;
+
+    public MetricMatrix(List<String> pouNames, List<String> metricNames, double[][] values) {
+        this.pouNames = intern(pouNames);
+        this.metricNames = intern(metricNames);
+        this.values = values;
+        this.pouIndex = index(this.pouNames);
+        this.metricIndex = index(this.metricNames);
+    }
+
+    private static String[] intern(List<String> names) {
+        String[] interned = new String[names.size()];
+        for (int i = 0; i < interned.length; i++) {
+            interned[i] = NAMES.intern(names.get(i));
+        }
+        return interned;
+    }
+
+    private static Map<String, Integer> index(String[] names) {
+        Map<String, Integer> index = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            index.put(names[i], i);
+        }
+        return index;
+    }
+
+    public int getPouCount() {
+        return pouNames.length;
+    }
+
+    public int getMetricCount() {
+        return metricNames.length;
+    }
+
+    public String getPouName(int pou) {
+        return pouNames[pou];
+    }
+
+    public String getMetricName(int metric) {
+        return metricNames[metric];
+    }
+
+    /**
+     * @return index of the POU named pouName, or -1 if the matrix has no such POU
+     */
+    public int indexOfPou(String pouName) {
+        Integer pou = pouIndex.get(pouName);
+        return pou == null ? -1 : pou;
+    }
+
+    /**
+     * @return index of the metric named metricName, or -1 if the matrix has no such metric
+     */
+    public int indexOfMetric(String metricName) {
+        Integer metric = metricIndex.get(metricName);
+        return metric == null ? -1 : metric;
+    }
+
+    public double getValue(int metric, int pou) {
+        return values[metric][pou];
+    }
+
+    /**
+     * @return the values of one metric for every POU, indexed by POU. The array is shared, not copied.
+     */
+    public double[] getColumn(int metric) {
+        return values[metric];
+    }
+
+    /**
+     * @return the metrics as a Table with POU names as rows and metric names as columns
+     */
+    public Table<String, String, Double> toTable() {
+        Table<String, String, Double> table = HashBasedTable.create();
+        for (int metric = 0; metric < getMetricCount(); metric++) {
+            for (int pou = 0; pou < getPouCount(); pou++) {
+                table.put(getPouName(pou), getMetricName(metric), values[metric][pou]);
+            }
+        }
+        return table;
+    }
+}
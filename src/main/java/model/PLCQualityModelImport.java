@@ -23,7 +23,10 @@
  */
 package model;
 
+import calibration.ThresholdStore;
 import com.google.gson.JsonObject;
+import evaluation.EvaluatorRegistry;
+import evaluation.StoredThresholdsUtilityFunction;
 import pique.evaluation.*;
 import pique.model.*;
 
@@ -34,8 +37,31 @@ import java.util.Map;
 
 public class PLCQualityModelImport extends QualityModelImport {
 
+    private final Path qmFileLocation;
+
     public PLCQualityModelImport(Path qmFileLocation) {
         super(qmFileLocation);
+        this.qmFileLocation = qmFileLocation;
+    }
+
+    /**
+     * Imports the quality model. If the model references a binary threshold store, each measure's utility function
+     * is wrapped to read its thresholds from the memory-mapped store on evaluation.
+     */
+    @Override
+    public QualityModel importQualityModel() {
+        QualityModel qualityModel = super.importQualityModel();
+
+        ThresholdStore thresholdStore = ThresholdStore.forModel(qmFileLocation);
+        if (thresholdStore != null) {
+            for (ModelNode measure : qualityModel.getMeasures().values()) {
+                if (measure.getUtility_function() != null) {
+                    measure.setUtility_function(new StoredThresholdsUtilityFunction(measure.getUtility_function(),
+                            thresholdStore, measure.getName()));
+                }
+            }
+        }
+        return qualityModel;
     }
 
     protected Map<String, ModelNode> instanceDiagnosticsFromJson(JsonObject diagnosticsJson) {
@@ -52,7 +78,7 @@ public class PLCQualityModelImport extends QualityModelImport {
             if (jsonDiagnostic.get("importance") != null) {
                 importance = jsonDiagnostic.get("importance").getAsString();
             }
-            IEvaluator evaluator = getEvaluatorFromConfiguration(jsonDiagnostic, "diagnostic");
+            IEvaluator evaluator = getSharedEvaluatorFromConfiguration(jsonDiagnostic, "diagnostic");
             INormalizer normalizer = getNormalizerFromConfiguration(jsonDiagnostic);
             IUtilityFunction utilityFunction = getUtilityFunctionFromConfiguration(jsonDiagnostic);
             Map<String, BigDecimal> weights = getWeightsFromConfiguration(jsonDiagnostic);
@@ -79,4 +105,12 @@ public class PLCQualityModelImport extends QualityModelImport {
 
         return tempDiagnostics;
     }
-}
\ No newline at end of file
+
+    /**
+     * Loads the node's evaluator as PIQUE does and shares one instance per evaluator class through
+     * {@link EvaluatorRegistry} when that class is stateless.
+     */
+    private IEvaluator getSharedEvaluatorFromConfiguration(JsonObject jsonNode, String nodeType) {
+        return EvaluatorRegistry.share(getEvaluatorFromConfiguration(jsonNode, nodeType));
+    }
+}
@@ -23,6 +23,7 @@
  */
 package model;
 
+import evaluation.EvaluatorRegistry;
 import lombok.Getter;
 import lombok.Setter;
 import pique.model.Finding;
@@ -36,6 +37,8 @@ public class RuleFinding extends Finding {
         super(filePath, 0, 0, severity);
         this.ruleId = ruleId;
         this.description = description;
+        // keeps PIQUE's default finding evaluator, one instance shared by all rule findings when it is stateless
+        this.eval_strategyObj = EvaluatorRegistry.share(this.eval_strategyObj);
     }
 
 }
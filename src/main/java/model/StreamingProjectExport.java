@@ -0,0 +1,183 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package model;
+
+import com.google.gson.stream.JsonWriter;
+import evaluation.FastMetricDiagnosticEvaluator;
+import pique.evaluation.Project;
+import pique.model.Finding;
+import pique.model.ModelNode;
+import pique.model.QualityModel;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Writes the results of an evaluated {@link Project} as json while walking its quality model, instead of building the
+ * whole document in memory first. Nodes reference their children by name, so every node is written exactly once:
+ * <pre>
+ * {"name": model, "projectName": project,
+ *  "tqi": {node}, "quality_aspects": {name: node}, "product_factors": {name: node},
+ *  "measures": {name: node}, "diagnostics": {name: node}}
+ *
+ * node: {"name", "value", "description", "weights": {child: weight}, "children": [child names]}
+ * </pre>
+ * Diagnostics list their findings instead of children, or only a findingCount when per-finding detail is skipped,
+ * which keeps export time and memory flat for diagnostics with many thousands of findings.
+ */
+public class StreamingProjectExport {
+
+    private final Project project;
+    private final boolean includeFindings;
+
+    /**
+     * @param project an evaluated project
+     * @param includeFindings whether every finding of every diagnostic is written, or only their number
+     */
+    public StreamingProjectExport(Project project, boolean includeFindings) {
+        this.project = project;
+        this.includeFindings = includeFindings;
+    }
+
+    /**
+     * @param outputFile file to write, parent directories are created
+     * @return outputFile
+     */
+    public Path exportToJson(Path outputFile) throws IOException {
+        if (outputFile.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(outputFile.toAbsolutePath().getParent());
+        }
+        try (FileChannel channel = FileChannel.open(outputFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1))) {
+            writeTo(writer);
+        }
+        return outputFile;
+    }
+
+    public void writeTo(Writer out) throws IOException {
+        QualityModel qualityModel = project.getQualityModel();
+        if (includeFindings) {
+            FastMetricDiagnosticEvaluator.setFindingValues(qualityModel.getDiagnostics().values());
+        }
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject();
+        json.name("name").value(qualityModel.getName());
+        json.name("projectName").value(project.getName());
+        json.name("tqi");
+        writeNode(json, qualityModel.getTqi());
+        writeNodes(json, "quality_aspects", qualityModel.getQualityAspects());
+        writeNodes(json, "product_factors", qualityModel.getProductFactors());
+        writeNodes(json, "measures", qualityModel.getMeasures());
+        json.name("diagnostics").beginObject();
+        for (ModelNode diagnostic : qualityModel.getDiagnostics().values()) {
+            json.name(diagnostic.getName());
+            writeDiagnostic(json, diagnostic);
+        }
+        json.endObject();
+        json.endObject();
+        json.flush();
+    }
+
+    private void writeNodes(JsonWriter json, String name, Map<String, ModelNode> nodes) throws IOException {
+        json.name(name).beginObject();
+        for (ModelNode node : nodes.values()) {
+            json.name(node.getName());
+            writeNode(json, node);
+        }
+        json.endObject();
+    }
+
+    private void writeNode(JsonWriter json, ModelNode node) throws IOException {
+        beginNode(json, node);
+        json.name("children").beginArray();
+        for (String child : node.getChildren().keySet()) {
+            json.value(child);
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    private void writeDiagnostic(JsonWriter json, ModelNode diagnostic) throws IOException {
+        beginNode(json, diagnostic);
+        json.name("findingCount").value(diagnostic.getChildren().size());
+        if (includeFindings) {
+            json.name("findings").beginArray();
+            for (ModelNode child : diagnostic.getChildren().values()) {
+                writeFinding(json, child);
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    private void writeFinding(JsonWriter json, ModelNode finding) throws IOException {
+        json.beginObject();
+        json.name("name").value(finding.getName());
+        json.name("value").value(finding.getValue());
+        if (finding instanceof Finding) {
+            json.name("filePath").value(((Finding) finding).getFilePath());
+            json.name("severity").value(((Finding) finding).getSeverity());
+        }
+        if (finding instanceof RuleFinding) {
+            json.name("ruleId").value(((RuleFinding) finding).getRuleId());
+            json.name("description").value(((RuleFinding) finding).getDescription());
+        } else if (finding instanceof MetricFinding) {
+            json.name("metricValue").value(((MetricFinding) finding).getMetricValue());
+        } else if (finding instanceof MetricColumnFinding) {
+            MetricColumnFinding columnFinding = (MetricColumnFinding) finding;
+            json.name("metricValues").beginObject();
+            double[] values = columnFinding.getValues();
+            for (int pou = 0; pou < values.length; pou++) {
+                json.name(columnFinding.getPouName(pou)).value(values[pou]);
+            }
+            json.endObject();
+        }
+        json.endObject();
+    }
+
+    private static void beginNode(JsonWriter json, ModelNode node) throws IOException {
+        json.beginObject();
+        json.name("name").value(node.getName());
+        BigDecimal value = node.getValue();
+        json.name("value").value(value);
+        json.name("description").value(node.getDescription());
+        json.name("weights").beginObject();
+        if (node.getWeights() != null) {
+            for (Map.Entry<String, BigDecimal> weight : node.getWeights().entrySet()) {
+                json.name(weight.getKey()).value(weight.getValue());
+            }
+        }
+        json.endObject();
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package runnable;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pique.analysis.ITool;
+import utilities.HelperFunctions;
+import utilities.QualityModelCache;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running evaluation service behind --run serve. The derived model, the CODESYS parser and the JVM stay warm
+ * between jobs, so a job only pays for parsing and evaluating its own project.
+ *
+ * HTTP API:
+ * <ul>
+ *     <li>POST /evaluate with {"project": "dir"}: evaluates the CODESYS output in dir, relative paths are resolved
+ *     against project.root and paths outside project.root are refused. Responds with the compact results json.</li>
+ *     <li>GET /health: responds with the model being served</li>
+ * </ul>
+ *
+ * Jobs are evaluated against derived.qm and always exported as PIQUE compact results, so derived.qm.models and a
+ * results.export other than pique are refused at startup.
+ */
+public class EvaluationServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EvaluationServer.class);
+
+    private final SingleProjectEvaluator evaluator = new SingleProjectEvaluator();
+    private final Path projectRoot;
+    private final Path resultsDir;
+    private final Path qmLocation;
+    private final Set<ITool> tools;
+    private final HttpServer server;
+    private final ExecutorService workers;
+
+    /**
+     * @param prop evaluation properties, as for {@link SingleProjectEvaluator}
+     * @param address address to listen on, port 0 picks a free port
+     * @param parallelism number of jobs evaluated at the same time
+     */
+    public EvaluationServer(Properties prop, InetSocketAddress address, int parallelism) throws IOException {
+        projectRoot = Paths.get(prop.getProperty("project.root")).toAbsolutePath().normalize();
+        evaluator.setParallelism(parallelism);
+        evaluator.configure(prop);
+        if (!evaluator.getQmLocations().isEmpty()) {
+            throw new IllegalArgumentException("--run serve evaluates derived.qm only, leave derived.qm.models empty");
+        }
+        if (!"pique".equals(evaluator.getResultsExport())) {
+            throw new IllegalArgumentException("--run serve responds with the PIQUE compact results, results.export must be pique");
+        }
+        resultsDir = evaluator.getResultsDir();
+        qmLocation = evaluator.getQmLocation();
+        tools = evaluator.getTools();
+
+        workers = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        server = HttpServer.create(address, 0);
+        server.createContext("/evaluate", this::handleEvaluate);
+        server.createContext("/health", this::handleHealth);
+        server.setExecutor(workers);
+    }
+
+    /**
+     * Imports the derived and blank models and starts accepting jobs
+     */
+    public void start() {
+        try {
+            QualityModelCache.getQualityModel(qmLocation);
+            tools.forEach(tool -> HelperFunctions.initializeDiagnostics(tool.getName()));
+        } catch (RuntimeException e) {
+            // the model may be derived after the server starts, jobs import it on first use
+            LOGGER.error("Could not warm up quality model " + qmLocation, e);
+        }
+        server.start();
+        LOGGER.info("Serving evaluations of " + qmLocation + " on " + getAddress());
+        System.out.println("Serving evaluations on http://" + getAddress().getHostString() + ":" + getAddress().getPort() + "/evaluate");
+    }
+
+    /**
+     * Stops accepting jobs, waiting up to delaySeconds for running jobs to finish
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        workers.shutdownNow();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handleEvaluate(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Use POST with {\"project\": \"<directory>\"}"));
+                return;
+            }
+            Path projectDir;
+            try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                JsonElement project = JsonParser.parseReader(reader).getAsJsonObject().get("project");
+                if (project == null) {
+                    respond(exchange, 400, error("Missing \"project\""));
+                    return;
+                }
+                projectDir = projectRoot.resolve(project.getAsString()).toAbsolutePath().normalize();
+            } catch (JsonParseException | IllegalStateException | UnsupportedOperationException | InvalidPathException e) {
+                respond(exchange, 400, error("Request body must be {\"project\": \"<directory>\"}"));
+                return;
+            }
+            if (!projectDir.startsWith(projectRoot) || !Files.isDirectory(projectDir)) {
+                respond(exchange, 400, error("Not a project directory under " + projectRoot + ": " + projectDir));
+                return;
+            }
+
+            LOGGER.info("Evaluating " + projectDir);
+            byte[] compactResults;
+            try {
+                compactResults = evaluator.evaluateCompact(projectDir, resultsDir, qmLocation, tools);
+            } catch (RuntimeException e) {
+                LOGGER.error("Evaluation of " + projectDir + " failed", e);
+                respond(exchange, 500, error("Evaluation failed: " + e));
+                return;
+            }
+            respond(exchange, 200, compactResults);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try {
+            JsonObject health = new JsonObject();
+            health.addProperty("status", "ok");
+            health.addProperty("model", qmLocation.toString());
+            respond(exchange, 200, health.toString().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static byte[] error(String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("error", message);
+        return error.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package runnable;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tool.CODESYSWrapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches project.root for CODESYS exports behind --run watch, and evaluates a project as soon as both its rules txt
+ * and metrics csv have landed. Only changes after the watcher starts are evaluated, the tree is not rescanned.
+ *
+ * A project is evaluated once its directory has been quiet for the debounce interval and the sizes of both files have
+ * stopped changing, so files still being copied in are not parsed half written. Changes arriving while a project is
+ * being evaluated queue it for one more evaluation afterwards.
+ */
+public class ProjectWatcher implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectWatcher.class);
+
+    private final Path projectRoot;
+    private final Consumer<Path> evaluation;
+    private final long debounceNanos;
+    private final WatchService watchService;
+    private final ExecutorService workers;
+
+    // project directory -> time of the last change seen in it
+    private final Map<Path, Long> pending = new HashMap<>();
+    // project directory -> sizes of its rules and metrics file when last checked
+    private final Map<Path, List<Long>> lastSizes = new HashMap<>();
+    private final Set<Path> evaluating = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * @param projectRoot directory holding one directory per project
+     * @param evaluation evaluates one project directory, called on the worker pool
+     * @param parallelism number of projects evaluated at the same time
+     * @param debounceMillis how long a project directory has to be quiet before it is evaluated
+     */
+    public ProjectWatcher(Path projectRoot, Consumer<Path> evaluation, int parallelism, long debounceMillis) throws IOException {
+        this.projectRoot = projectRoot.toAbsolutePath().normalize();
+        this.evaluation = evaluation;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.watchService = this.projectRoot.getFileSystem().newWatchService();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, parallelism));
+
+        this.projectRoot.register(watchService, ENTRY_CREATE);
+        File[] projects = this.projectRoot.toFile().listFiles(File::isDirectory);
+        if (projects != null) {
+            for (File project : projects) {
+                registerProject(project.toPath());
+            }
+        }
+    }
+
+    /**
+     * Watches until {@link #close()} is called or the thread is interrupted
+     */
+    public void run() throws InterruptedException {
+        LOGGER.info("Watching " + projectRoot + " for CODESYS output");
+        System.out.println("Watching " + projectRoot + " for CODESYS output");
+        long pollNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(50), debounceNanos / 2);
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = watchService.poll(pollNanos, TimeUnit.NANOSECONDS);
+            } catch (ClosedWatchServiceException e) {
+                break;
+            }
+            if (key != null) {
+                handleEvents(key);
+            }
+            submitSettledProjects();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+        workers.shutdown();
+    }
+
+    private void handleEvents(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // events were lost, fall back to checking every project once
+                LOGGER.warn("Missed file events under " + projectRoot + ", checking every project");
+                File[] projects = projectRoot.toFile().listFiles(File::isDirectory);
+                if (projects != null) {
+                    for (File project : projects) {
+                        registerProject(project.toPath());
+                        markChanged(project.toPath());
+                    }
+                }
+                continue;
+            }
+            Path changed = directory.resolve((Path) event.context());
+            if (directory.equals(projectRoot)) {
+                if (Files.isDirectory(changed)) {
+                    // files may already be in the directory before it is registered
+                    registerProject(changed);
+                    markChanged(changed);
+                }
+            } else {
+                markChanged(directory);
+            }
+        }
+        key.reset();
+    }
+
+    private void registerProject(Path project) {
+        try {
+            project.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException e) {
+            LOGGER.error("Could not watch " + project, e);
+        }
+    }
+
+    private void markChanged(Path project) {
+        pending.put(project, System.nanoTime());
+    }
+
+    private void submitSettledProjects() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, Long>> projects = pending.entrySet().iterator();
+        while (projects.hasNext()) {
+            Map.Entry<Path, Long> entry = projects.next();
+            Path project = entry.getKey();
+            if (now - entry.getValue() < debounceNanos || evaluating.contains(project)) {
+                continue;
+            }
+            List<Long> sizes = outputSizes(project);
+            if (sizes == null) {
+                // only one of the pair is there, the other one will trigger a new event when it lands
+                projects.remove();
+                lastSizes.remove(project);
+                continue;
+            }
+            if (!sizes.equals(lastSizes.put(project, sizes))) {
+                // still growing without file events, e.g. on file systems that only report creation; check again later
+                entry.setValue(now);
+                continue;
+            }
+            projects.remove();
+            lastSizes.remove(project);
+            evaluating.add(project);
+            workers.submit(() -> evaluate(project));
+        }
+    }
+
+    private void evaluate(Path project) {
+        try {
+            LOGGER.info("Evaluating " + project);
+            evaluation.accept(project);
+        } catch (RuntimeException e) {
+            LOGGER.error("Evaluation of " + project + " failed", e);
+        } finally {
+            evaluating.remove(project);
+        }
+    }
+
+    /**
+     * @return sizes of the project's rules txt and metrics csv, or null if either is missing
+     */
+    private static List<Long> outputSizes(Path project) {
+        Pair<Path, Path> toolOutput = CODESYSWrapper.findToolOutput(project);
+        if (toolOutput.getLeft().equals(project) || toolOutput.getRight().equals(project)) {
+            return null;
+        }
+        return Arrays.asList(toolOutput.getRight().toFile().length(), toolOutput.getLeft().toFile().length());
+    }
+}
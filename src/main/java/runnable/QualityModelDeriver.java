@@ -23,7 +23,9 @@
  */
 package runnable;
 
-import model.PLCQualityModelImport;
+import calibration.BenchmarkMeasureStore;
+import calibration.PLCBenchmarker;
+import calibration.ThresholdStore;
 import org.checkerframework.checker.units.qual.K;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,10 +37,16 @@ import pique.runnable.AQualityModelDeriver;
 import pique.utility.PiqueProperties;
 import tool.CODESYSWrapper;
 import tool.KENWrapper;
+import utilities.EvaluationCache;
+import utilities.PhaseMetrics;
+import utilities.ProcessRunner;
+import utilities.QualityModelCache;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -52,10 +60,18 @@ public class QualityModelDeriver extends AQualityModelDeriver {
         new QualityModelDeriver();
     }
 
+    // number of benchmark projects parsed at the same time
+    private int parallelism = 1;
+
     public QualityModelDeriver(String propertiesPath){
         init(propertiesPath);
     }
 
+    public QualityModelDeriver(String propertiesPath, int parallelism){
+        this.parallelism = parallelism;
+        init(propertiesPath);
+    }
+
     public QualityModelDeriver(){
         init(null);
     }
@@ -77,19 +93,71 @@ public class QualityModelDeriver extends AQualityModelDeriver {
         String projectRootFlag = "";
         Path benchmarkRepo = Paths.get(prop.getProperty("benchmark.repo"));
 
-        ITool CODESYSWrapper = new CODESYSWrapper();
-        //uncomment me when we get KEN working
-        //ITool KENWrapper = new KENWrapper();
-        //Set<ITool> tools = Stream.of(CODESYSWrapper, KENWrapper).collect(Collectors.toSet());
-        Set<ITool> tools = Stream.of(CODESYSWrapper).collect(Collectors.toSet());
-        PLCQualityModelImport qmImport = new PLCQualityModelImport(blankqmFilePath);
-        QualityModel qmDescription = qmImport.importQualityModel();
+        String maxProcesses = prop.getProperty("analyzer.max.processes", "").trim();
+        if (!maxProcesses.isEmpty()) {
+            ProcessRunner.setShared(Integer.parseInt(maxProcesses));
+        }
+
+        boolean columnFindings = Boolean.parseBoolean(prop.getProperty("metrics.column.findings", "false"));
+        ITool CODESYSWrapper = new CODESYSWrapper(columnFindings);
+        ITool KENWrapper = new KENWrapper();
+        Set<ITool> tools = Stream.of(CODESYSWrapper, KENWrapper).collect(Collectors.toSet());
+        // per-phase timings of the derivation and of every parsed benchmark project
+        Path phaseMetricsFile = null;
+        PhaseMetrics phaseMetrics = null;
+        if (Boolean.parseBoolean(prop.getProperty("phase.metrics", "false"))) {
+            phaseMetricsFile = PhaseMetrics.metricsFileFor(derivedModelFilePath);
+            phaseMetrics = PhaseMetrics.begin("derive", benchmarkRepo.toString());
+        }
+        QualityModel qmDescription = PhaseMetrics.measure("importQualityModel", () -> QualityModelCache.getQualityModel(blankqmFilePath));
+
+        // keep per-project measure values so the next derivation only parses new or changed benchmark projects
+        BenchmarkMeasureStore measureStore = null;
+        String measureStoreLocation = prop.getProperty("benchmark.measure.store", "");
+        if (!measureStoreLocation.isEmpty()) {
+            Properties measureConfiguration = new Properties();
+            measureConfiguration.setProperty("metrics.column.findings", String.valueOf(columnFindings));
+            // measures stored by another version may have been parsed differently
+            measureConfiguration.setProperty("version", prop.getProperty("version", ""));
+            String modelKey = EvaluationCache.key(Collections.singletonList(blankqmFilePath), measureConfiguration);
+            measureStore = new BenchmarkMeasureStore(Paths.get(measureStoreLocation), modelKey);
+        }
+
+        // the model instances its benchmarker by name, hand this derivation's settings to a benchmarker of its own
+        if (qmDescription.getBenchmarker() instanceof PLCBenchmarker) {
+            qmDescription.setBenchmarker(new PLCBenchmarker(parallelism, measureStore, phaseMetricsFile));
+        }
 
-        QualityModel derivedQualityModel = deriveModel(qmDescription, tools, benchmarkRepo, projectRootFlag);
+        QualityModel derivedQualityModel = PhaseMetrics.measure("deriveModel", () -> deriveModel(qmDescription, tools, benchmarkRepo, projectRootFlag));
+
+        // optionally move thresholds out of the model json into a binary sidecar file
+        Path thresholdStorePath = null;
+        if ("binary".equalsIgnoreCase(prop.getProperty("thresholds.store"))) {
+            thresholdStorePath = derivedModelFilePath.resolve(derivedQualityModel.getName().replaceAll("\\s", "") + "-thresholds.bin");
+            try {
+                Files.createDirectories(derivedModelFilePath);
+                ThresholdStore.detachThresholds(derivedQualityModel, thresholdStorePath);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not write threshold store " + thresholdStorePath, e);
+            }
+        }
 
-        Path jsonOutput = new QualityModelExport(derivedQualityModel)
+        Path jsonOutput = PhaseMetrics.measure("exportToJson", () -> new QualityModelExport(derivedQualityModel)
                 .exportToJson(derivedQualityModel
-                        .getName(), derivedModelFilePath);
+                        .getName(), derivedModelFilePath));
+
+        if (thresholdStorePath != null) {
+            try {
+                ThresholdStore.linkToModel(jsonOutput, thresholdStorePath);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not reference threshold store from " + jsonOutput, e);
+            }
+        }
+
+        if (phaseMetrics != null) {
+            PhaseMetrics.end();
+            phaseMetrics.writeTo(phaseMetricsFile);
+        }
 
         LOGGER.info("Quality Model derivation finished. You can find the file at " + jsonOutput.toAbsolutePath().toString());
     }
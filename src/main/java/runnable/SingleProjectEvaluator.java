@@ -23,18 +23,31 @@
  */
 package runnable;
 
+import calibration.ThresholdStore;
+import com.github.dockerjava.api.DockerClient;
+import evaluation.FastMetricDiagnosticEvaluator;
 import lombok.Getter;
 import lombok.Setter;
-import model.PLCQualityModelImport;
+import model.StreamingProjectExport;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pique.analysis.ITool;
 import pique.evaluation.Project;
 import pique.model.Diagnostic;
+import pique.model.ModelNode;
 import pique.model.QualityModel;
 import pique.runnable.ASingleProjectEvaluator;
 import pique.utility.PiqueProperties;
+import tool.AnalyzerContainerPool;
 import tool.CODESYSWrapper;
+import tool.KENWrapper;
+import utilities.AggregatedResults;
+import utilities.EvaluationCache;
+import utilities.PhaseMetrics;
+import utilities.ProcessRunner;
+import utilities.QualityModelCache;
 
 import java.io.File;
 import java.io.IOException;
@@ -42,22 +55,162 @@ import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class SingleProjectEvaluator extends ASingleProjectEvaluator {
     private static final Logger LOGGER = LoggerFactory.getLogger(SingleProjectEvaluator.class);
+    private static final String EVALUATION_CACHE_DIRECTORY = ".evaluation-cache";
+    // evaluates a project against several models at once, threads are created as needed and die when idle
+    private static final ExecutorService MODEL_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "model-evaluator");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     //default properties location
     @Getter
     @Setter
     private String propertiesLocation = "src/main/resources/pique-properties.properties";
 
+    // number of projects evaluated at the same time, 1 evaluates projects one after another
+    @Getter
+    private int parallelism = 1;
+
+    // runs the tools of a project side by side, parallelism times the number of tools threads so projects evaluated
+    // at the same time do not wait for each other's tools. Set by configure()
+    private ExecutorService toolExecutor;
+
+    // skips projects whose CODESYS output, derived model and configuration are unchanged since their last evaluation,
+    // null when evaluation.cache is off
+    @Getter
+    private EvaluationCache evaluationCache;
+    private Properties configuration;
+
+    // set by configure()
+    @Getter
+    private Path resultsDir;
+    @Getter
+    private Path qmLocation;
+    @Getter
+    private Set<ITool> tools;
+    // derived.qm.models evaluates every project against each of these derived models instead of derived.qm, from a
+    // single parse of its tool output. Results of each model go to a subdirectory of the results directory named
+    // after the directory the model was derived into. Empty when only derived.qm is evaluated
+    @Getter
+    private List<Path> qmLocations = Collections.emptyList();
+    // results subdirectory of each model of qmLocations, see modelResultsName
+    private Map<Path, String> modelResultsNames = Collections.emptyMap();
+
+    // per-phase timings of every evaluated project are appended here, null when phase.metrics is off
+    @Getter
+    @Setter
+    private Path phaseMetricsFile;
+
+    // results.export=streaming writes one streamed results file instead of the PIQUE full and compact exports,
+    // results.export.findings=false leaves the per-finding detail out of it. results.export=aggregate only appends
+    // the scores of each project to a single results file, see AggregatedResults
+    @Getter
+    private String resultsExport = "pique";
+    @Getter
+    private boolean exportFindings = true;
+
+    /**
+     * Creates an evaluator without evaluating anything, for callers that drive {@link #runEvaluator} themselves
+     */
+    public SingleProjectEvaluator() {
+    }
+
     public SingleProjectEvaluator(String projectsToAnalyze) {
         init(projectsToAnalyze);
     }
 
+    public SingleProjectEvaluator(String projectsToAnalyze, int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        init(projectsToAnalyze);
+    }
+
+    /**
+     * Reads where results go, which model to evaluate against, which tools to run and the caching and instrumentation
+     * options from prop, without evaluating anything
+     */
+    public void configure(Properties prop) {
+        resultsDir = Paths.get(prop.getProperty("results.directory"));
+
+        qmLocation = Paths.get(prop.getProperty("derived.qm"));
+        qmLocations = Arrays.stream(prop.getProperty("derived.qm.models", "").split(","))
+                .map(String::trim)
+                .filter(model -> !model.isEmpty())
+                .map(Paths::get)
+                .collect(Collectors.toList());
+        modelResultsNames = new LinkedHashMap<>();
+        for (Path model : qmLocations) {
+            String modelResultsName = modelResultsName(model);
+            if (modelResultsNames.containsValue(modelResultsName)) {
+                throw new IllegalArgumentException("Two models of derived.qm.models would share the results directory "
+                        + modelResultsName + ", derive each model into a directory of its own: " + qmLocations);
+            }
+            modelResultsNames.put(model, modelResultsName);
+        }
+        if (!qmLocations.isEmpty()) {
+            LOGGER.info("Evaluating every project against models " + qmLocations);
+        }
+
+        configuration = prop;
+        resultsExport = prop.getProperty("results.export", "pique").trim().toLowerCase();
+        if (!Arrays.asList("pique", "streaming", "aggregate").contains(resultsExport)) {
+            throw new IllegalArgumentException("Unknown results.export " + resultsExport + ", expected pique, streaming or aggregate");
+        }
+        if (Boolean.parseBoolean(prop.getProperty("evaluation.cache", "false"))) {
+            // the aggregated results file is shared by all projects, its existence says nothing about one project
+            if ("aggregate".equals(resultsExport)) {
+                LOGGER.warn("evaluation.cache is ignored with results.export=aggregate, every project is evaluated");
+            } else {
+                evaluationCache = new EvaluationCache(resultsDir.resolve(EVALUATION_CACHE_DIRECTORY));
+            }
+        }
+        if (Boolean.parseBoolean(prop.getProperty("phase.metrics", "false"))) {
+            phaseMetricsFile = PhaseMetrics.metricsFileFor(resultsDir);
+            LOGGER.info("Writing phase metrics to " + phaseMetricsFile);
+        }
+        exportFindings = Boolean.parseBoolean(prop.getProperty("results.export.findings", "true"));
+
+        String maxProcesses = prop.getProperty("analyzer.max.processes", "").trim();
+        if (!maxProcesses.isEmpty()) {
+            ProcessRunner.setShared(Integer.parseInt(maxProcesses));
+        }
+
+        boolean columnFindings = Boolean.parseBoolean(prop.getProperty("metrics.column.findings", "false"));
+        ITool CODESYSWrapper = new CODESYSWrapper(columnFindings);
+        ITool KENWrapper = new KENWrapper();
+        tools = Stream.of(CODESYSWrapper, KENWrapper).collect(Collectors.toSet());
+
+        if (toolExecutor != null) {
+            toolExecutor.shutdown();
+        }
+        toolExecutor = Executors.newFixedThreadPool(parallelism * tools.size(), runnable -> {
+            Thread thread = new Thread(runnable, "tool-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the number of projects evaluated at the same time, for callers that evaluate projects concurrently
+     * themselves. Takes effect at the next {@link #configure(Properties)}.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
     public void init(String projectsToAnalyze) {
         LOGGER.info("Starting Analysis");
         Properties prop = null;
@@ -67,12 +220,7 @@ public class SingleProjectEvaluator extends ASingleProjectEvaluator {
             e.printStackTrace();
         }
 
-        Path resultsDir = Paths.get(prop.getProperty("results.directory"));
-
-        Path qmLocation = Paths.get(prop.getProperty("derived.qm"));
-
-        ITool CODESYSWrapper = new CODESYSWrapper();
-        Set<ITool> tools = Stream.of(CODESYSWrapper).collect(Collectors.toSet());
+        configure(prop);
 
         Set<Path> projectRoots = new HashSet<>();
 
@@ -83,49 +231,477 @@ public class SingleProjectEvaluator extends ASingleProjectEvaluator {
             LOGGER.info("Queuing directory: " + file + " for analysis");
         }
 
-        for (Path plcProject : projectRoots) {
-            Path outputPath = runEvaluator(plcProject, resultsDir, qmLocation, tools).getParent();
-            try {
-                //create output directory if not exist
-                Files.createDirectories(outputPath);
-            } catch (IOException e) {
-                System.out.println("Could not create output directory for compact file");
+        analyzeInContainers(Paths.get(projectsToAnalyze), projectRoots);
+
+        if (parallelism == 1) {
+            for (Path plcProject : projectRoots) {
+                Project evaluatedProject = evaluateAndExport(plcProject, resultsDir, qmLocation, tools);
+                if (evaluatedProject != null) {
+                    project = evaluatedProject;
+                }
+            }
+        } else {
+            evaluateInParallel(projectRoots, resultsDir, qmLocation, tools);
+        }
+
+        if (evaluationCache != null) {
+            String report = "Evaluation cache: " + evaluationCache.getHits() + " hits (reused results), "
+                    + evaluationCache.getMisses() + " misses (evaluated)";
+            System.out.println(report);
+            LOGGER.info(report);
+        }
+
+    }
+
+    /**
+     * Runs the analyzer image of every tool that has one (analyzer.image.{tool name}) over all projects, so the tool
+     * output is in place before the projects are evaluated. The projects are analyzed in batches on a pool of warm
+     * containers that have projectRoot bind-mounted, see {@link AnalyzerContainerPool}. Projects the analyzer failed
+     * on, or could not be run on, are removed from projectRoots and not evaluated.
+     */
+    private void analyzeInContainers(Path projectRoot, Set<Path> projectRoots) {
+        for (ITool tool : tools) {
+            String image = configuration.getProperty("analyzer.image." + tool.getName(), "").trim();
+            if (image.isEmpty()) {
+                continue;
+            }
+            String command = configuration.getProperty("analyzer.command." + tool.getName(), "").trim();
+            if (command.isEmpty()) {
+                throw new IllegalArgumentException("analyzer.image." + tool.getName() + " is set without analyzer.command." + tool.getName());
+            }
+            int containers = Integer.parseInt(configuration.getProperty("analyzer.containers", "2").trim());
+            int batchSize = Integer.parseInt(configuration.getProperty("analyzer.batch.size", "10").trim());
+            long timeoutNanos = toolTimeoutNanos(tool);
+
+            LOGGER.info("Analyzing " + projectRoots.size() + " projects with " + image);
+            try (DockerClient docker = AnalyzerContainerPool.dockerClient(configuration.getProperty("analyzer.docker.host", "").trim());
+                 AnalyzerContainerPool pool = new AnalyzerContainerPool(docker, image, projectRoot,
+                         Arrays.asList(command.split("\\s+")), containers, batchSize)) {
+                Map<Path, Integer> exitCodes = pool.analyze(projectRoots,
+                        timeoutNanos <= 0 ? Long.MAX_VALUE : timeoutNanos, TimeUnit.NANOSECONDS);
+                // a project without complete tool output would be scored as if it had no findings
+                List<Path> failedProjects = new ArrayList<>();
+                for (Path project : projectRoots) {
+                    int exitCode = exitCodes.getOrDefault(project, -1);
+                    if (exitCode != 0) {
+                        LOGGER.error(image + " exited with " + exitCode + " on project " + project + ", skipping it");
+                        System.out.println("Skipping project " + project + ", " + image + " exited with " + exitCode);
+                        failedProjects.add(project);
+                    }
+                }
+                projectRoots.removeAll(failedProjects);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 throw new RuntimeException(e);
+            } catch (IOException e) {
+                LOGGER.warn("Could not close the docker client of " + image, e);
+            }
+        }
+    }
+
+    /**
+     * Evaluates every project on a bounded pool of parallelism threads. Each project is evaluated against its own
+     * copy of the quality model, so no state is shared between workers and each project's output files are identical
+     * to a serial run.
+     */
+    private void evaluateInParallel(Set<Path> projectRoots, Path resultsDir, Path qmLocation, Set<ITool> tools) {
+        LOGGER.info("Evaluating " + projectRoots.size() + " projects with parallelism " + parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            Map<Path, Future<Project>> evaluations = new LinkedHashMap<>();
+            for (Path plcProject : projectRoots) {
+                evaluations.put(plcProject, executor.submit(() -> evaluateAndExport(plcProject, resultsDir, qmLocation, tools)));
+            }
+
+            List<Path> failedProjects = new ArrayList<>();
+            for (Map.Entry<Path, Future<Project>> evaluation : evaluations.entrySet()) {
+                try {
+                    evaluation.getValue().get();
+                } catch (ExecutionException e) {
+                    LOGGER.error("Evaluation of project " + evaluation.getKey() + " failed", e.getCause());
+                    failedProjects.add(evaluation.getKey());
+                }
+            }
+            if (!failedProjects.isEmpty()) {
+                throw new RuntimeException("Evaluation failed for projects: " + failedProjects);
             }
-            LOGGER.info("output directory: " + outputPath.getFileName());
-            System.out.println("Output directory (known bug with the 'input/' directory being included in the output path): " + resultsDir.getFileName() + "/" + plcProject.getParent());
-            System.out.println("Exporting compact output file for use with the pique visualizer : " + project.exportToJson(resultsDir, true));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
+    /**
+     * Evaluates a single project and exports its results as configured by {@link #configure(Properties)}.
+     * Safe to call from several threads at once.
+     *
+     * @return the evaluated project, or null if its previously exported results were reused from the evaluation cache
+     */
+    public Project evaluateAndExport(Path plcProject) {
+        return evaluateAndExport(plcProject, resultsDir, qmLocation, tools);
+    }
+
+    /**
+     * @return the evaluated project, or null if its previously exported results were reused from the evaluation cache.
+     * With derived.qm.models, the project evaluated against the first of them
+     */
+    private Project evaluateAndExport(Path plcProject, Path resultsDir, Path qmLocation, Set<ITool> tools) {
+        List<Path> models = qmLocations.isEmpty() ? Collections.singletonList(qmLocation) : qmLocations;
+        String cacheKey = null;
+        if (evaluationCache != null) {
+            cacheKey = EvaluationCache.key(evaluationInputs(plcProject, models), configuration);
+            List<Path> cachedOutputs = evaluationCache.lookup(plcProject, cacheKey);
+            if (cachedOutputs != null) {
+                System.out.println("Project " + plcProject + " is unchanged, reusing results: " + cachedOutputs);
+                LOGGER.info("Project " + plcProject + " is unchanged, reusing results: " + cachedOutputs);
+                return null;
+            }
+        }
+
+        Map<Path, Project> evaluatedProjects;
+        List<Path> outputFiles = new ArrayList<>();
+        PhaseMetrics phaseMetrics = beginPhaseMetrics(plcProject);
+        try {
+            if (qmLocations.isEmpty()) {
+                Project evaluatedProject = evaluateProject(plcProject, qmLocation, tools);
+                evaluatedProjects = Collections.singletonMap(qmLocation, evaluatedProject);
+                outputFiles.addAll(exportResults(evaluatedProject, plcProject, resultsDir));
+            } else {
+                evaluatedProjects = evaluateModels(plcProject, qmLocations, tools);
+                for (Map.Entry<Path, Project> evaluatedProject : evaluatedProjects.entrySet()) {
+                    Path modelResultsDir = resultsDir.resolve(modelResultsNames.get(evaluatedProject.getKey()));
+                    outputFiles.addAll(exportResults(evaluatedProject.getValue(), plcProject, modelResultsDir));
+                }
+            }
+        } finally {
+            endPhaseMetrics(phaseMetrics);
+        }
+
+        if (evaluationCache != null) {
+            evaluationCache.store(plcProject, cacheKey, outputFiles);
+        }
+        return evaluatedProjects.values().iterator().next();
+    }
+
+    /**
+     * Exports the results of evaluatedProject to resultsDir as set by results.export
+     *
+     * @return the files written to
+     */
+    private List<Path> exportResults(Project evaluatedProject, Path plcProject, Path resultsDir) {
+        if ("aggregate".equals(resultsExport)) {
+            AggregatedResults aggregatedResults = new AggregatedResults(AggregatedResults.resultsFileFor(resultsDir));
+            PhaseMetrics.measure("exportToJson (aggregate)", () -> aggregatedResults.append(evaluatedProject));
+            return Collections.singletonList(aggregatedResults.getResultsFile());
+        } else if ("streaming".equals(resultsExport)) {
+            Path outputFile = PhaseMetrics.measure("exportToJson (streaming)",
+                    () -> exportStreaming(evaluatedProject, plcProject, resultsDir));
+            System.out.println("Exporting streamed results file: " + outputFile);
+            return Collections.singletonList(outputFile);
+        }
+        return exportPique(evaluatedProject, plcProject, resultsDir);
+    }
+
+    /**
+     * Exports the full and the compact PIQUE results files of evaluatedProject
+     *
+     * @return both output files
+     */
+    private List<Path> exportPique(Project evaluatedProject, Path plcProject, Path resultsDir) {
+        FastMetricDiagnosticEvaluator.setFindingValues(evaluatedProject.getQualityModel().getDiagnostics().values());
+        Path outputFile = PhaseMetrics.measure("exportToJson", () -> evaluatedProject.exportToJson(resultsDir));
+        Path outputPath = outputFile.getParent();
+        try {
+            //create output directory if not exist
+            Files.createDirectories(outputPath);
+        } catch (IOException e) {
+            System.out.println("Could not create output directory for compact file");
+            throw new RuntimeException(e);
+        }
+        LOGGER.info("output directory: " + outputPath.getFileName());
+        System.out.println("Output directory (known bug with the 'input/' directory being included in the output path): " + resultsDir.getFileName() + "/" + plcProject.getParent());
+        Path compactOutputFile = PhaseMetrics.measure("exportToJson (compact)", () -> evaluatedProject.exportToJson(resultsDir, true));
+        System.out.println("Exporting compact output file for use with the pique visualizer : " + compactOutputFile);
+        return Arrays.asList(outputFile, compactOutputFile);
+    }
+
+    /**
+     * Streams the results of evaluatedProject to resultsDir/{project}_streamed_evalResults.json
+     */
+    private Path exportStreaming(Project evaluatedProject, Path plcProject, Path resultsDir) {
+        Path outputFile = resultsDir.resolve(plcProject.getFileName() + "_streamed_evalResults.json");
+        try {
+            return new StreamingProjectExport(evaluatedProject, exportFindings).exportToJson(outputFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write streamed results " + outputFile, e);
+        }
+    }
+
+    /**
+     * @return name of the results subdirectory of a model of derived.qm.models: the directory the model was derived
+     * into, as every derived model file has the same name, or the model's file name for a model without a directory
+     */
+    static String modelResultsName(Path model) {
+        Path modelDirectory = model.toAbsolutePath().normalize().getParent();
+        if (model.getParent() == null || modelDirectory == null || modelDirectory.getFileName() == null) {
+            return FilenameUtils.getBaseName(model.getFileName().toString());
+        }
+        return modelDirectory.getFileName().toString();
+    }
+
+    /**
+     * @return every file evaluating plcProject reads: its CODESYS rules and metrics output, its KEN output, the derived
+     * models and their threshold stores
+     */
+    private List<Path> evaluationInputs(Path plcProject, List<Path> qmLocations) {
+        Pair<Path, Path> toolOutput = CODESYSWrapper.findToolOutput(plcProject);
+        List<Path> inputs = new ArrayList<>(Arrays.asList(toolOutput.getRight(), toolOutput.getLeft()));
+        List<Path> kenOutput = KENWrapper.findToolOutput(plcProject);
+        Collections.sort(kenOutput);
+        inputs.addAll(kenOutput);
+        for (Path qmLocation : qmLocations) {
+            inputs.add(qmLocation);
+            Path thresholdStore = ThresholdStore.storePathOf(qmLocation);
+            if (thresholdStore != null) {
+                inputs.add(thresholdStore);
+            }
+        }
+        return inputs;
     }
 
     @Override
     public Path runEvaluator(Path projectDir, Path resultsDir, Path qmLocation, Set<ITool> tools){
+        PhaseMetrics phaseMetrics = beginPhaseMetrics(projectDir);
+        try {
+            project = evaluateProject(projectDir, qmLocation, tools);
+            FastMetricDiagnosticEvaluator.setFindingValues(project.getQualityModel().getDiagnostics().values());
+
+            // Create a file of the results and return its path
+            return PhaseMetrics.measure("exportToJson", () -> project.exportToJson(resultsDir));
+        } finally {
+            endPhaseMetrics(phaseMetrics);
+        }
+    }
+
+    /**
+     * Evaluates a single project and exports only its compact results file, for callers that evaluate projects one
+     * at a time on request. Does not touch the project field, so it is safe to call from several threads at once.
+     *
+     * @return content of the compact results file
+     */
+    public byte[] evaluateCompact(Path projectDir, Path resultsDir, Path qmLocation, Set<ITool> tools) {
+        PhaseMetrics phaseMetrics = beginPhaseMetrics(projectDir);
+        try {
+            Project evaluatedProject = evaluateProject(projectDir, qmLocation, tools);
+            return PhaseMetrics.measure("exportToJson (compact)", () -> exportCompact(evaluatedProject, resultsDir));
+        } finally {
+            endPhaseMetrics(phaseMetrics);
+        }
+    }
+
+    /**
+     * Exports the compact results into a directory of this call's own and reads them back from there, so concurrent
+     * jobs on the same project never read each other's file. The file then replaces the project's results file in
+     * resultsDir.
+     */
+    private static byte[] exportCompact(Project evaluatedProject, Path resultsDir) {
+        Path jobDir = null;
+        try {
+            Files.createDirectories(resultsDir);
+            jobDir = Files.createTempDirectory(resultsDir, ".job-");
+            Path jobResults = evaluatedProject.exportToJson(jobDir, true);
+            byte[] compactResults = Files.readAllBytes(jobResults);
+            Files.move(jobResults, resultsDir.resolve(jobResults.getFileName()),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return compactResults;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not export compact results to " + resultsDir, e);
+        } finally {
+            deleteJobDirectory(jobDir);
+        }
+    }
+
+    private static void deleteJobDirectory(Path jobDir) {
+        if (jobDir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(jobDir)) {
+            // children sort after their parent, delete deepest first
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete " + jobDir, e);
+        }
+    }
+
+    private PhaseMetrics beginPhaseMetrics(Path projectDir) {
+        return phaseMetricsFile == null ? null : PhaseMetrics.begin("evaluate", projectDir.toString());
+    }
+
+    private void endPhaseMetrics(PhaseMetrics phaseMetrics) {
+        if (phaseMetrics != null) {
+            PhaseMetrics.end();
+            phaseMetrics.writeTo(phaseMetricsFile);
+        }
+    }
+
+    /**
+     * Runs the tools over a single project and evaluates it against its own copy of the quality model.
+     * Does not touch the project field, so it is safe to call from several threads at once.
+     *
+     * @return the evaluated project
+     */
+    public Project evaluateProject(Path projectDir, Path qmLocation, Set<ITool> tools) {
+        return evaluateFindings(projectDir, qmLocation, parseFindings(projectDir, tools));
+    }
+
+    /**
+     * Runs the tools over a single project once and evaluates its findings against each quality model concurrently.
+     * The tools attach findings to the diagnostics of the blank model, and each model takes over those of its own
+     * diagnostics by name, so the same finding set serves models with different diagnostics. Findings are only read
+     * while evaluating, and the value of a finding depends on nothing but the finding, so the models share them.
+     * Safe to call from several threads at once.
+     *
+     * @return the evaluated project of every model, in the order of qmLocations
+     */
+    public Map<Path, Project> evaluateModels(Path projectDir, List<Path> qmLocations, Set<ITool> tools) {
+        Map<String, Diagnostic> findings = parseFindings(projectDir, tools);
+        // every model is evaluated on its own thread, adding its phases to this project's record
+        PhaseMetrics phaseMetrics = PhaseMetrics.current();
+        return PhaseMetrics.measure("evaluateModels", () -> {
+            Map<Path, Future<Project>> evaluations = new LinkedHashMap<>();
+            for (Path qmLocation : qmLocations) {
+                evaluations.put(qmLocation, MODEL_EXECUTOR.submit(() -> {
+                    PhaseMetrics.attach(phaseMetrics);
+                    try {
+                        return evaluateFindings(projectDir, qmLocation, findings);
+                    } finally {
+                        PhaseMetrics.end();
+                    }
+                }));
+            }
+            Map<Path, Project> evaluatedProjects = new LinkedHashMap<>();
+            try {
+                for (Map.Entry<Path, Future<Project>> evaluation : evaluations.entrySet()) {
+                    evaluatedProjects.put(evaluation.getKey(), evaluation.getValue().get());
+                }
+            } catch (InterruptedException e) {
+                evaluations.values().forEach(evaluation -> evaluation.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                evaluations.values().forEach(evaluation -> evaluation.cancel(true));
+                throw new RuntimeException("Evaluation of project " + projectDir + " failed", e.getCause());
+            }
+            return evaluatedProjects;
+        });
+    }
+
+    /**
+     * Runs the tools over a single project, side by side when there are several. A tool that fails or runs past its
+     * timeout is cancelled together with the other tools, and fails the project.
+     *
+     * @return the diagnostics of every tool with their findings attached
+     */
+    public Map<String, Diagnostic> parseFindings(Path projectDir, Set<ITool> tools) {
+        ITool onlyTool = tools.size() == 1 ? tools.iterator().next() : null;
+        if (onlyTool != null && toolTimeoutNanos(onlyTool) <= 0) {
+            return new HashMap<>(PhaseMetrics.measure("runTool (" + onlyTool.getName() + ")", () -> runTool(projectDir, onlyTool)));
+        }
+
+        // every tool runs on its own thread, adding its phases to this project's record
+        PhaseMetrics phaseMetrics = PhaseMetrics.current();
+        long started = System.nanoTime();
+        Map<ITool, Future<Map<String, Diagnostic>>> runs = new LinkedHashMap<>();
+        for (ITool tool : tools) {
+            runs.put(tool, toolExecutor.submit(() -> {
+                PhaseMetrics.attach(phaseMetrics);
+                try {
+                    return PhaseMetrics.measure("runTool (" + tool.getName() + ")", () -> runTool(projectDir, tool));
+                } finally {
+                    PhaseMetrics.end();
+                }
+            }));
+        }
+
+        // each tool's diagnostics are merged here once it is done, the tools never write to a shared map
+        Map<String, Diagnostic> allDiagnostics = new HashMap<>();
+        ITool waitingFor = null;
+        try {
+            for (Map.Entry<ITool, Future<Map<String, Diagnostic>>> run : runs.entrySet()) {
+                waitingFor = run.getKey();
+                long timeoutNanos = toolTimeoutNanos(waitingFor);
+                Map<String, Diagnostic> diagnostics = timeoutNanos <= 0
+                        ? run.getValue().get()
+                        : run.getValue().get(timeoutNanos - (System.nanoTime() - started), TimeUnit.NANOSECONDS);
+                allDiagnostics.putAll(diagnostics);
+            }
+        } catch (InterruptedException e) {
+            runs.values().forEach(run -> run.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            runs.values().forEach(run -> run.cancel(true));
+            throw new RuntimeException("Tool " + waitingFor.getName() + " failed on project " + projectDir, e.getCause());
+        } catch (TimeoutException e) {
+            runs.values().forEach(run -> run.cancel(true));
+            throw new RuntimeException("Tool " + waitingFor.getName() + " did not finish on project " + projectDir
+                    + " within " + TimeUnit.NANOSECONDS.toSeconds(toolTimeoutNanos(waitingFor)) + " seconds");
+        }
+        return allDiagnostics;
+    }
+
+    /**
+     * @return how long tool may take on a single project, tool.timeout.seconds.{tool name} overriding
+     * tool.timeout.seconds, or 0 to wait for it indefinitely
+     */
+    private long toolTimeoutNanos(ITool tool) {
+        if (configuration == null) {
+            return 0;
+        }
+        String timeout = configuration.getProperty("tool.timeout.seconds." + tool.getName(),
+                configuration.getProperty("tool.timeout.seconds", "0"));
+        return TimeUnit.SECONDS.toNanos(Long.parseLong(timeout.trim()));
+    }
+
+    /**
+     * Evaluates findings against the project's own copy of the quality model at qmLocation
+     *
+     * @return the evaluated project
+     */
+    private Project evaluateFindings(Path projectDir, Path qmLocation, Map<String, Diagnostic> findings) {
         // Initialize data structures
-        PLCQualityModelImport qmImport = new PLCQualityModelImport(qmLocation);
-        QualityModel qualityModel = qmImport.importQualityModel();
-        project = new Project(projectDir.toString(), projectDir, qualityModel);
+        QualityModel qualityModel = PhaseMetrics.measure("importQualityModel", () -> QualityModelCache.getQualityModel(qmLocation));
+        Project evaluatedProject = new Project(projectDir.toString(), projectDir, qualityModel);
 
         // Validate State
         // TODO: validate more objects such as if the quality model has thresholds and weights, are there expected diagnostics, etc
-        validatePreEvaluationState(project);
+        validatePreEvaluationState(evaluatedProject);
 
-        // Run the static analysis tools process
-        Map<String, Diagnostic> allDiagnostics = new HashMap<>();
-        tools.forEach(tool -> {
-            allDiagnostics.putAll(runTool(projectDir, tool));
+        // Apply tool results to Project object, models of derived.qm.models may hold fewer diagnostics than the blank
+        // model the tools filled in
+        Map<String, Diagnostic> modelFindings = new HashMap<>();
+        Map<String, ModelNode> modelDiagnostics = qualityModel.getDiagnostics();
+        findings.forEach((name, diagnostic) -> {
+            if (modelDiagnostics.containsKey(name)) {
+                modelFindings.put(name, diagnostic);
+            }
         });
+        PhaseMetrics.measure("updateDiagnosticsWithFindings", () -> evaluatedProject.updateDiagnosticsWithFindings(modelFindings));
 
-        // Apply tool results to Project object
-        project.updateDiagnosticsWithFindings(allDiagnostics);
-
-        BigDecimal tqiValue = project.evaluateTqi();
+        BigDecimal tqiValue = PhaseMetrics.measure("evaluateTqi", evaluatedProject::evaluateTqi);
 
-        // Create a file of the results and return its path
-        return project.exportToJson(resultsDir);
+        return evaluatedProject;
     }
 
     //region Get / Set
+    /**
+     * @return the last project evaluated by a serial run, parallel runs do not track a single project and projects
+     * reused from the evaluation cache are not loaded
+     */
     public Project getEvaluatedProject() {
         return project;
     }
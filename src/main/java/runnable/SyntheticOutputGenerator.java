@@ -0,0 +1,97 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package runnable;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+import tool.CODESYSOutputGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line entry point of {@link CODESYSOutputGenerator}, writes synthetic CODESYS output for load testing.
+ * The output directory holds one directory per project, so it can be used as project.root or benchmark.repo.
+ *
+ * e.g. java -cp entrypoint.jar runnable.SyntheticOutputGenerator --output benchmarks/ --projects 1000 --pous 500
+ */
+public class SyntheticOutputGenerator {
+
+    public static void main(String[] args) {
+        ArgumentParser parser = ArgumentParsers.newFor("runnable.SyntheticOutputGenerator").build()
+                .defaultHelp(true).description("Generates synthetic CODESYS rules and metrics output for load testing");
+        parser.addArgument("--output")
+                .required(true)
+                .help("directory to write one directory of CODESYS output per project into");
+        parser.addArgument("--projects")
+                .type(Integer.class)
+                .setDefault(1)
+                .help("number of projects, more than one lays out a benchmark repository with projects of varying size");
+        parser.addArgument("--pous")
+                .type(Integer.class)
+                .setDefault(100)
+                .help("number of POUs per project, each POU gets a row in the metrics file");
+        parser.addArgument("--findings-per-pou")
+                .type(Double.class)
+                .setDefault(5.0)
+                .help("mean number of rule findings per POU");
+        parser.addArgument("--fatal-error-rate")
+                .type(Double.class)
+                .setDefault(0.0)
+                .help("fraction of extra FATAL ERROR lines mixed into the rules output");
+        parser.addArgument("--rules")
+                .help("rule distribution as relative frequencies, e.g. SA0033=5,SA0162=20, defaults to the frequencies seen in real exports");
+        parser.addArgument("--seed")
+                .type(Long.class)
+                .setDefault(0L)
+                .help("random seed, the same seed and options generate the same output");
+
+        try {
+            Namespace namespace = parser.parseArgs(args);
+            CODESYSOutputGenerator generator = new CODESYSOutputGenerator(namespace.getLong("seed"));
+            generator.setPouCount(namespace.getInt("pous"));
+            generator.setFindingsPerPou(namespace.getDouble("findings_per_pou"));
+            generator.setFatalErrorRate(namespace.getDouble("fatal_error_rate"));
+            if (namespace.getString("rules") != null) {
+                generator.setRuleWeights(CODESYSOutputGenerator.parseRuleWeights(namespace.getString("rules")));
+            }
+
+            Path output = Paths.get(namespace.getString("output"));
+            int projects = namespace.getInt("projects");
+            int findings = projects == 1
+                    ? generator.writeProject(output.resolve("project0"), "project0")
+                    : generator.writeBenchmarkRepository(output, projects);
+            System.out.println("Wrote " + findings + " rule findings over " + projects + " projects to " + output);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
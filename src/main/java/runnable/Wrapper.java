@@ -30,6 +30,7 @@ import net.sourceforge.argparse4j.inf.Namespace;
 import pique.utility.PiqueProperties;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Properties;
@@ -50,10 +51,23 @@ public class Wrapper {
                     .defaultHelp(true).description("Entry point for PIQUE-PLC-CUSTOMCODE analysis");
             parser.addArgument("--run")
                     .setDefault("evaluate")
-                    .choices("derive", "evaluate")
+                    .choices("derive", "evaluate", "serve", "watch")
                     .help("derive: derives a new quality model from the benchmark repository, using --file throws an IllegalArgumentException and print the stack trace" +
                             "\n evaluate: evaluates output from two CODESYS output analysis files (a rules file and a metrics file)" +
-                            " with derived quality model, --file must exist otherwise throw an IllegalArgumentException and print the stack trace");
+                            " with derived quality model, --file must exist otherwise throw an IllegalArgumentException and print the stack trace" +
+                            "\n serve: keeps the derived quality model loaded and evaluates projects posted to http://<host>:<port>/evaluate" +
+                            "\n watch: evaluates each project under project.root as soon as both of its CODESYS output files have landed");
+            parser.addArgument("--parallelism")
+                    .type(Integer.class)
+                    .setDefault(1)
+                    .help("number of projects to evaluate (evaluate, serve, watch) or benchmark projects to parse (derive) concurrently, defaults to 1 (one project at a time)");
+            parser.addArgument("--host")
+                    .setDefault("127.0.0.1")
+                    .help("address serve listens on, defaults to loopback only");
+            parser.addArgument("--port")
+                    .type(Integer.class)
+                    .setDefault(8080)
+                    .help("port serve listens on");
             parser.addArgument("--version")
                     .action(Arguments.storeTrue())
                     .setDefault(false)
@@ -69,6 +83,7 @@ public class Wrapper {
 
             String runType = namespace.getString("run");
             boolean printVersion = namespace.getBoolean("version");
+            int parallelism = namespace.getInt("parallelism");
             Properties prop = PiqueProperties.getProperties();
 
             if (printVersion) {
@@ -79,10 +94,25 @@ public class Wrapper {
 
             if ("derive".equals(runType)) {
                 // kick off deriver
-                new QualityModelDeriver();
+                new QualityModelDeriver(null, parallelism);
             }
             else if ("evaluate".equals(runType)) {
-                new SingleProjectEvaluator(projectsToAnalyze.toString());
+                new SingleProjectEvaluator(projectsToAnalyze.toString(), parallelism);
+            }
+            else if ("serve".equals(runType)) {
+                EvaluationServer server = new EvaluationServer(prop,
+                        new InetSocketAddress(namespace.getString("host"), namespace.getInt("port")), parallelism);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+                server.start();
+            }
+            else if ("watch".equals(runType)) {
+                SingleProjectEvaluator evaluator = new SingleProjectEvaluator();
+                evaluator.setParallelism(parallelism);
+                evaluator.configure(prop);
+                long debounceMillis = Long.parseLong(prop.getProperty("watch.debounce.millis", "2000"));
+                try (ProjectWatcher watcher = new ProjectWatcher(projectsToAnalyze, evaluator::evaluateAndExport, parallelism, debounceMillis)) {
+                    watcher.run();
+                }
             }
             else {
                 throw new IllegalArgumentException("Incorrect input parameters given. Use --help for more information");
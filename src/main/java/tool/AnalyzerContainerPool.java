@@ -0,0 +1,271 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tool;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.Volume;
+import com.github.dockerjava.core.DefaultDockerClientConfig;
+import com.github.dockerjava.core.DockerClientBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Runs an analyzer image (e.g. CODESYS or KEN packaged for the command line) over many projects without paying a
+ * container start per project. Containers are started once, idle on a keep-alive command with the project root
+ * bind-mounted at {@value #PROJECT_MOUNT}, and are handed out for a batch of projects at a time; the analyzer runs
+ * in them through docker exec and writes its output next to the project, where the tool wrappers pick it up.
+ * At most maxContainers containers run at once, all are removed on {@link #close()}.
+ */
+public class AnalyzerContainerPool implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzerContainerPool.class);
+
+    public static final String PROJECT_MOUNT = "/projects";
+    // placeholder of the command template, replaced with the project's directory inside the container
+    public static final String PROJECT_PLACEHOLDER = "{project}";
+    private static final List<String> KEEP_ALIVE_COMMAND = Arrays.asList("tail", "-f", "/dev/null");
+
+    private final DockerClient docker;
+    private final String image;
+    private final Path projectRoot;
+    private final List<String> commandTemplate;
+    private final int maxContainers;
+    private final int batchSize;
+
+    private final BlockingQueue<String> idleContainers = new LinkedBlockingQueue<>();
+    private final Set<String> containers = ConcurrentHashMap.newKeySet();
+    // containers started or starting, never more than maxContainers
+    private final Semaphore containerSlots;
+    private final ExecutorService executor;
+
+    /**
+     * @param commandTemplate analyzer command, {project} is replaced with the directory of the project to analyze
+     * @param maxContainers most containers running at once
+     * @param batchSize projects analyzed in a container before it is handed to the next batch
+     */
+    public AnalyzerContainerPool(DockerClient docker, String image, Path projectRoot, List<String> commandTemplate,
+                                 int maxContainers, int batchSize) {
+        this.docker = docker;
+        this.image = image;
+        this.projectRoot = projectRoot.toAbsolutePath().normalize();
+        this.commandTemplate = new ArrayList<>(commandTemplate);
+        this.maxContainers = Math.max(1, maxContainers);
+        this.batchSize = Math.max(1, batchSize);
+        this.containerSlots = new Semaphore(this.maxContainers);
+        this.executor = Executors.newFixedThreadPool(this.maxContainers, runnable -> {
+            Thread thread = new Thread(runnable, "analyzer-container");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param dockerHost docker endpoint, e.g. unix:///var/run/docker.sock or tcp://localhost:2375, null for the
+     * default of the environment (DOCKER_HOST)
+     * @return a client for dockerHost
+     */
+    public static DockerClient dockerClient(String dockerHost) {
+        DefaultDockerClientConfig.Builder config = DefaultDockerClientConfig.createDefaultConfigBuilder();
+        if (dockerHost != null && !dockerHost.isEmpty()) {
+            config.withDockerHost(dockerHost);
+        }
+        return DockerClientBuilder.getInstance(config.build()).build();
+    }
+
+    /**
+     * Runs the analyzer over every project, in batches of batchSize projects per container lease
+     *
+     * @param projects project directories under the project root
+     * @param timeout how long the analyzer may take on a single project
+     * @return the analyzer's exit code for every project, -1 where it failed to run or ran past timeout
+     */
+    public Map<Path, Integer> analyze(Collection<Path> projects, long timeout, TimeUnit unit) throws InterruptedException {
+        List<Path> pending = new ArrayList<>(projects);
+        List<Future<Map<Path, Integer>>> batches = new ArrayList<>();
+        for (int start = 0; start < pending.size(); start += batchSize) {
+            List<Path> batch = pending.subList(start, Math.min(pending.size(), start + batchSize));
+            batches.add(executor.submit(() -> analyzeBatch(batch, timeout, unit)));
+        }
+
+        Map<Path, Integer> exitCodes = new LinkedHashMap<>();
+        try {
+            for (Future<Map<Path, Integer>> batch : batches) {
+                exitCodes.putAll(batch.get());
+            }
+        } catch (ExecutionException e) {
+            batches.forEach(batch -> batch.cancel(true));
+            throw new RuntimeException("Analyzer image " + image + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            batches.forEach(batch -> batch.cancel(true));
+            throw e;
+        }
+        return exitCodes;
+    }
+
+    private Map<Path, Integer> analyzeBatch(List<Path> batch, long timeout, TimeUnit unit) throws InterruptedException {
+        Map<Path, Integer> exitCodes = new LinkedHashMap<>();
+        String container = null;
+        try {
+            for (Path project : batch) {
+                if (container == null) {
+                    container = lease();
+                }
+                Integer exitCode;
+                try {
+                    exitCode = exec(container, project, timeout, unit);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Could not run " + image + " on " + project, e);
+                    exitCode = null;
+                }
+                if (exitCode == null) {
+                    // the analyzer may still be running in it, the rest of the batch gets a fresh container
+                    discard(container);
+                    container = null;
+                }
+                exitCodes.put(project, exitCode == null ? -1 : exitCode);
+            }
+        } finally {
+            if (container != null) {
+                idleContainers.add(container);
+            }
+        }
+        return exitCodes;
+    }
+
+    /**
+     * @return an idle container, starting one while fewer than maxContainers run
+     */
+    private String lease() throws InterruptedException {
+        String container = idleContainers.poll();
+        if (container != null) {
+            return container;
+        }
+        if (containerSlots.tryAcquire()) {
+            try {
+                return start();
+            } catch (RuntimeException e) {
+                containerSlots.release();
+                throw e;
+            }
+        }
+        return idleContainers.take();
+    }
+
+    private String start() {
+        HostConfig hostConfig = HostConfig.newHostConfig()
+                .withBinds(new Bind(projectRoot.toString(), new Volume(PROJECT_MOUNT)));
+        String container = docker.createContainerCmd(image)
+                .withCmd(KEEP_ALIVE_COMMAND)
+                .withLabels(Collections.singletonMap("pique.analyzer.pool", image))
+                .withHostConfig(hostConfig)
+                .exec()
+                .getId();
+        containers.add(container);
+        docker.startContainerCmd(container).exec();
+        LOGGER.info("Started analyzer container " + container + " of " + image);
+        return container;
+    }
+
+    /**
+     * @return exit code of the analyzer, null if it ran past timeout
+     */
+    private Integer exec(String container, Path project, long timeout, TimeUnit unit) throws InterruptedException {
+        String[] command = commandFor(project).toArray(new String[0]);
+        String exec = docker.execCreateCmd(container)
+                .withCmd(command)
+                .withAttachStdout(true)
+                .withAttachStderr(true)
+                .exec()
+                .getId();
+        ResultCallback.Adapter<Frame> output = docker.execStartCmd(exec).exec(new ResultCallback.Adapter<Frame>() {
+            @Override
+            public void onNext(Frame frame) {
+                LOGGER.debug(new String(frame.getPayload(), StandardCharsets.UTF_8).trim());
+            }
+        });
+        if (!output.awaitCompletion(timeout, unit)) {
+            LOGGER.error(image + " did not finish on " + project + " within " + timeout + " " + unit);
+            return null;
+        }
+        Long exitCode = docker.inspectExecCmd(exec).exec().getExitCodeLong();
+        return exitCode == null ? null : exitCode.intValue();
+    }
+
+    /**
+     * @return the analyzer command for project, with {project} replaced by its directory inside the container
+     */
+    public List<String> commandFor(Path project) {
+        Path relative = projectRoot.relativize(project.toAbsolutePath().normalize());
+        if (relative.startsWith("..")) {
+            throw new IllegalArgumentException("Project " + project + " is outside the project root " + projectRoot);
+        }
+        String containerPath = PROJECT_MOUNT + "/" + relative.toString().replace('\\', '/');
+        return commandTemplate.stream()
+                .map(argument -> argument.replace(PROJECT_PLACEHOLDER, containerPath))
+                .collect(Collectors.toList());
+    }
+
+    private void discard(String container) {
+        remove(container);
+        containerSlots.release();
+    }
+
+    private void remove(String container) {
+        try {
+            docker.removeContainerCmd(container).withForce(true).exec();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not remove analyzer container " + container, e);
+        }
+        containers.remove(container);
+    }
+
+    /**
+     * Removes every container of the pool
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (String container : new ArrayList<>(containers)) {
+            remove(container);
+        }
+        idleContainers.clear();
+    }
+
+    /**
+     * @return number of containers of the pool currently running
+     */
+    public int getRunningContainers() {
+        return containers.size();
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tool;
+
+import com.google.common.primitives.Doubles;
+import model.MetricMatrix;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utilities.HelperFunctions;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads the ';' delimited metrics csv output by CODESYS into a {@link MetricMatrix}.
+ * The file is memory-mapped and tokenized straight from the mapped bytes; only POU and metric names become Strings,
+ * and numbers are parsed from the bytes without building intermediate Strings.
+ *
+ * Expected layout: three ignored lines (Min.:, Max.:, blank), two lines of ';' separated metric names, one ignored
+ * line, then one line per POU holding its name followed by one value per metric.
+ */
+public class CODESYSMetricsReader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CODESYSMetricsReader.class);
+
+    private static final int IGNORE_LINES = 3;
+    private static final int COLUMN_DEFINITION_LINES = 2;
+    private static final byte DELIMITER = ';';
+    // exact powers of ten, m / 10^k is correctly rounded for m < 2^53 and k <= 22
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final MappedByteBuffer buffer;
+    private final int limit;
+    private int position = 0;
+
+    private final List<String> metricNames = new ArrayList<>();
+    private final List<String> pouNames = new ArrayList<>();
+    private final Map<String, Integer> pouIndex = new HashMap<>();
+    private double[][] columns;
+
+    private CODESYSMetricsReader(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * @param metricsFile path to the metrics csv output by CODESYS
+     * @return the metric values of every POU in the file
+     */
+    public static MetricMatrix read(Path metricsFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(metricsFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Metrics file too large to map: " + metricsFile);
+            }
+            CODESYSMetricsReader reader = new CODESYSMetricsReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            return reader.parse(metricsFile);
+        }
+    }
+
+    private MetricMatrix parse(Path metricsFile) {
+        int line = 0;
+        while (position < limit) {
+            HelperFunctions.checkNotInterrupted(metricsFile);
+            int lineEnd = findLineEnd(position);
+            if (line >= IGNORE_LINES && line < IGNORE_LINES + COLUMN_DEFINITION_LINES) {
+                parseColumnDefinitions(position, lineEnd);
+            } else if (line > IGNORE_LINES + COLUMN_DEFINITION_LINES) {
+                parseRow(position, lineEnd);
+            }
+            position = skipLineTerminator(lineEnd);
+            line++;
+        }
+
+        double[][] values = new double[metricNames.size()][];
+        for (int metric = 0; metric < values.length; metric++) {
+            values[metric] = columns == null ? new double[0] : Arrays.copyOf(columns[metric], pouNames.size());
+        }
+        return new MetricMatrix(pouNames, metricNames, values);
+    }
+
+    private void parseColumnDefinitions(int start, int end) {
+        List<String> names = new ArrayList<>();
+        int fieldStart = start;
+        while (fieldStart <= end) {
+            int fieldEnd = findFieldEnd(fieldStart, end);
+            names.add(decode(fieldStart, fieldEnd).trim());
+            fieldStart = fieldEnd + 1;
+        }
+        // the definition lines open with a delimiter, and trailing delimiters do not name a column
+        if (!names.isEmpty() && names.get(0).isEmpty()) {
+            names.remove(0);
+        }
+        while (!names.isEmpty() && names.get(names.size() - 1).isEmpty()) {
+            names.remove(names.size() - 1);
+        }
+        metricNames.addAll(names);
+    }
+
+    private void parseRow(int start, int end) {
+        int nameEnd = findFieldEnd(start, end);
+        String pouName = decode(start, nameEnd).trim();
+        if (pouName.isEmpty() && nameEnd >= end) {
+            return;     // blank line
+        }
+        int pou = pouIndex.computeIfAbsent(pouName, name -> {
+            pouNames.add(name);
+            return pouNames.size() - 1;
+        });
+        ensureCapacity(pou + 1);
+
+        int fieldStart = nameEnd + 1;
+        for (int metric = 0; metric < metricNames.size(); metric++) {
+            if (fieldStart > end) {
+                columns[metric][pou] = 0;     // row is shorter than the column definitions
+                continue;
+            }
+            int fieldEnd = findFieldEnd(fieldStart, end);
+            columns[metric][pou] = parseNumber(fieldStart, fieldEnd);
+            fieldStart = fieldEnd + 1;
+        }
+    }
+
+    private void ensureCapacity(int pouCount) {
+        if (columns == null) {
+            columns = new double[metricNames.size()][Math.max(16, pouCount)];
+        } else if (metricNames.size() > 0 && columns[0].length < pouCount) {
+            int capacity = Math.max(pouCount, columns[0].length * 2);
+            for (int metric = 0; metric < columns.length; metric++) {
+                columns[metric] = Arrays.copyOf(columns[metric], capacity);
+            }
+        }
+    }
+
+    /**
+     * Parses a plain decimal number such as -9.9 or 128 from the bytes in [start, end). Empty cells are 0, as the
+     * model has always treated them. Anything else (exponents, very long mantissas) falls back to the JDK parser.
+     */
+    private double parseNumber(int start, int end) {
+        while (start < end && isWhitespace(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return 0;
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (buffer.get(i) == '-' || buffer.get(i) == '+') {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int fractionDigits = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                seenDigit = true;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    return parseSlow(start, end);
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return parseSlow(start, end);
+            }
+        }
+        if (!seenDigit || fractionDigits >= POWERS_OF_TEN.length) {
+            return parseSlow(start, end);
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private double parseSlow(int start, int end) {
+        String cell = decode(start, end);
+        Double value = Doubles.tryParse(cell);
+        if (value == null) {
+            // read like an empty cell so one malformed value does not drop the whole metrics file
+            LOGGER.warn("Unparseable metric value '" + cell.trim() + "' read as 0");
+            return 0;
+        }
+        return value;
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int findLineEnd(int from) {
+        int i = from;
+        while (i < limit) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private int skipLineTerminator(int lineEnd) {
+        if (lineEnd < limit && buffer.get(lineEnd) == '\r') {
+            lineEnd++;
+        }
+        if (lineEnd < limit && buffer.get(lineEnd) == '\n') {
+            lineEnd++;
+        }
+        return lineEnd;
+    }
+
+    private int findFieldEnd(int from, int lineEnd) {
+        int i = from;
+        while (i < lineEnd && buffer.get(i) != DELIMITER) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
@@ -0,0 +1,254 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tool;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Generates synthetic CODESYS output for load testing: a rules txt of "[ERROR] ...: SA00xx:  description" lines and a
+ * ';' delimited metrics csv, in the shape {@link CODESYSWrapper} and {@link CODESYSMetricsReader} read.
+ * Output is reproducible for a given seed.
+ *
+ * By default rules are drawn with the frequencies observed in real CODESYS exports, see {@link #defaultRuleWeights()}.
+ */
+public class CODESYSOutputGenerator {
+
+    // metric columns as CODESYS exports them, the last one wraps onto a second header line
+    static final List<String> METRIC_NAMES = Collections.unmodifiableList(Arrays.asList(
+            "Code size (number of bytes)", "Variables size (number of bytes)", "Stack size (number of bytes)",
+            "Number of calls", "Called in tasks", "Used different global Variables", "Number of direct address accesses",
+            "Number of local variables", "Number of inputs variables", "Number of output variables",
+            "NOS - Number Of Statements", "Percentage of comment", "Complexity (McCabe)", "Complexity of nesting (Prather)",
+            "DIT - Depth of Inheritance Tree", "NOC - Number Of Children", "RFC - Response For Class",
+            "CBO - Coupling Between Objects", "Complexity of reference (Elshof)", "Lack of Cohesion Of Methods - LCOM",
+            "Number of different used operators - Halstead (n1)", "Number of operators - Halstead (N1)",
+            "Number of different used operands - Halstead (n2)", "Number of operands - Halstead (N2)",
+            "Length - Halstead (HL)", "Volume - Halstead (HV)", "Difficulty - Halstead (D)", "Number of SFC branches",
+            "Number of SFC steps"));
+    private static final Set<String> FRACTIONAL_METRICS = new HashSet<>(Arrays.asList(
+            "Complexity of nesting (Prather)", "Lack of Cohesion Of Methods - LCOM", "Difficulty - Halstead (D)"));
+
+    private static final String[][] DEFAULT_RULES = {
+            // rule id, relative frequency, message, %s is replaced by a variable or POU name
+            {"SA0162", "198", "Missing comment for '%s'"},
+            {"SA0102", "110", "Access to program/fb variable '%s' from the outside"},
+            {"SA0024", "49", "Untyped literal found"},
+            {"SA0101", "25", "Incorrect length of name '%s'"},
+            {"SA0038", "23", "Read access to output variable '%s'"},
+            {"SA0033", "19", "Unused Variable '%s'"},
+            {"SA0031", "15", "Unused Method '%s'"},
+            {"SA0168", "10", "The variable '%s' is assigned but never used"},
+            {"SA0062", "10", "Uses of TRUE or FALSE in expressions"},
+            {"SA0164", "6", "Use single line comments only"},
+            {"SA0130", "6", "Implicit widening conversion from type 'INT' to type 'DINT'"},
+            {"SA0037", "5", "Write access to input variable '%s'"},
+            {"SA0118", "4", "Initialisations not using constants"},
+            {"SA0029", "4", "Notation in code '%s' differs from declaration"},
+            {"SA0025", "3", "Enumeration constant '%s' not qualified"},
+            {"SA0012", "3", "Variable '%s' could be declared as constant"},
+            {"SA0134", "2", "Explicit signed/unsigned conversion from type 'INT' to type 'UINT'"},
+            {"SA0040", "2", "Possible division by zero"},
+            {"SA0035", "2", "Unused Input '%s'"},
+            {"SA0171", "1", "Enumerations should have the attribute 'strict'"}};
+
+    // number of POUs in the project
+    @Getter @Setter
+    private int pouCount = 100;
+    // mean number of rule findings per POU
+    @Getter @Setter
+    private double findingsPerPou = 5;
+    // fraction of extra SA internal error lines, which the parser has to skip
+    @Getter @Setter
+    private double fatalErrorRate = 0;
+    // fraction of empty metric cells, CODESYS leaves metrics that do not apply to a POU empty
+    @Getter @Setter
+    private double emptyMetricRate = 0.3;
+    // relative frequency of every rule id, see defaultRuleWeights()
+    @Getter @Setter
+    private Map<String, Double> ruleWeights = defaultRuleWeights();
+
+    private final Random random;
+
+    public CODESYSOutputGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @return rule ids by their relative frequency in real CODESYS exports
+     */
+    public static Map<String, Double> defaultRuleWeights() {
+        Map<String, Double> ruleWeights = new LinkedHashMap<>();
+        for (String[] rule : DEFAULT_RULES) {
+            ruleWeights.put(rule[0], Double.parseDouble(rule[1]));
+        }
+        return ruleWeights;
+    }
+
+    /**
+     * Parses a rule distribution such as "SA0033=5,SA0162=20"
+     *
+     * @return rule ids by relative frequency
+     */
+    public static Map<String, Double> parseRuleWeights(String ruleWeights) {
+        Map<String, Double> parsed = new LinkedHashMap<>();
+        for (String rule : ruleWeights.split(",")) {
+            String[] idAndWeight = rule.trim().split("=");
+            if (idAndWeight.length != 2 || CODESYSRuleIndex.parseRuleNumber(idAndWeight[0], 0, idAndWeight[0].length()) < 0) {
+                throw new IllegalArgumentException("Rule weights must look like SA0033=5, got: " + rule);
+            }
+            parsed.put(idAndWeight[0], Double.parseDouble(idAndWeight[1]));
+        }
+        return parsed;
+    }
+
+    /**
+     * Writes a rules txt and a metrics csv for one project into directory, named so that {@link CODESYSWrapper}
+     * picks them up as that project's output.
+     *
+     * @param projectName name of the project, '-' is replaced as it separates the parts of CODESYS file names
+     * @return number of rule findings written, not counting SA internal error lines
+     */
+    public int writeProject(Path directory, String projectName) throws IOException {
+        String name = projectName.replace('-', '_');
+        Files.createDirectories(directory);
+        List<String> pouNames = pouNames();
+        writeMetrics(directory.resolve("CODESYS-" + name + "-Metrics.csv"), pouNames);
+        return writeRules(directory.resolve("CODESYS-" + name + "-StaticAnalysisOutput.txt"), name, pouNames);
+    }
+
+    /**
+     * Lays out a benchmark repository of projects project directories for {@code PLCBenchmarker}. Projects vary in
+     * size between half and one and a half times pouCount, so derived thresholds have some spread.
+     *
+     * @return number of rule findings written over all projects
+     */
+    public int writeBenchmarkRepository(Path benchmarkRepository, int projects) throws IOException {
+        int basePouCount = pouCount;
+        int findings = 0;
+        try {
+            for (int project = 0; project < projects; project++) {
+                pouCount = Math.max(1, (int) Math.round(basePouCount * (0.5 + random.nextDouble())));
+                findings += writeProject(benchmarkRepository.resolve("project" + project), "project" + project);
+            }
+        } finally {
+            pouCount = basePouCount;
+        }
+        return findings;
+    }
+
+    private List<String> pouNames() {
+        List<String> pouNames = new ArrayList<>(pouCount);
+        String[] kinds = {"FB_", "PRG_", "FC_", "METH_"};
+        for (int pou = 0; pou < pouCount; pou++) {
+            pouNames.add(kinds[pou % kinds.length] + "Pou" + pou);
+        }
+        return pouNames;
+    }
+
+    private int writeRules(Path rulesFile, String projectName, List<String> pouNames) throws IOException {
+        String[] ruleIds = ruleWeights.keySet().toArray(new String[0]);
+        double[] cumulativeWeights = new double[ruleIds.length];
+        double totalWeight = 0;
+        for (int i = 0; i < ruleIds.length; i++) {
+            totalWeight += ruleWeights.get(ruleIds[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+        Map<String, String> messages = new HashMap<>();
+        for (String[] rule : DEFAULT_RULES) {
+            messages.put(rule[0], rule[2]);
+        }
+
+        int findings = (int) Math.round(pouCount * findingsPerPou);
+        int errorLines = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(rulesFile, StandardCharsets.UTF_8)) {
+            writer.write("                Static analysis...");
+            writer.newLine();
+            for (int finding = 0; finding < findings; finding++) {
+                String pou = pouNames.get(random.nextInt(pouNames.size()));
+                if (random.nextDouble() < fatalErrorRate) {
+                    writer.write("[ERROR]         FATAL ERROR in static analysis of " + projectName + "." + pou
+                            + ": SA0001:  Internal error during check");
+                    writer.newLine();
+                    errorLines++;
+                }
+                int rule = Arrays.binarySearch(cumulativeWeights, random.nextDouble() * totalWeight);
+                String ruleId = ruleIds[rule < 0 ? Math.min(-rule - 1, ruleIds.length - 1) : rule];
+                String message = String.format(messages.getOrDefault(ruleId, "Rule violation '%s'"), "var" + random.nextInt(50));
+                writer.write("[ERROR]         " + projectName + ": " + pou + " [Device: PLC Logic: Application](Line "
+                        + (1 + random.nextInt(200)) + " (Decl)): " + ruleId + ":  " + message);
+                writer.newLine();
+            }
+            writer.write("                Static analysis complete -- " + (findings + errorLines) + " errors, 0 warnings");
+            writer.newLine();
+        }
+        return findings;
+    }
+
+    private void writeMetrics(Path metricsFile, List<String> pouNames) throws IOException {
+        List<String> firstHeaderLine = METRIC_NAMES.subList(0, METRIC_NAMES.size() - 1);
+        try (BufferedWriter writer = Files.newBufferedWriter(metricsFile, StandardCharsets.UTF_8)) {
+            writer.write("Min.:");
+            writer.newLine();
+            writer.write("Max.:");
+            writer.newLine();
+            writer.newLine();
+            writer.write(";" + String.join(";", firstHeaderLine));
+            writer.newLine();
+            writer.write(";" + METRIC_NAMES.get(METRIC_NAMES.size() - 1));
+            writer.newLine();
+            writer.newLine();
+            for (String pou : pouNames) {
+                StringBuilder row = new StringBuilder(pou);
+                for (String metric : METRIC_NAMES) {
+                    row.append(';');
+                    if (random.nextDouble() >= emptyMetricRate) {
+                        row.append(metricValue(metric));
+                    }
+                }
+                writer.write(row.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    private String metricValue(String metric) {
+        if (metric.equals("Percentage of comment")) {
+            return Integer.toString(random.nextInt(101));
+        }
+        // metric values are heavily skewed, most POUs are small
+        double value = Math.exp(random.nextGaussian() * 1.2 + 2.5);
+        if (FRACTIONAL_METRICS.contains(metric)) {
+            return String.format(Locale.ROOT, "%.2f", value / 10);
+        }
+        return Long.toString(Math.round(value));
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tool;
+
+import model.CODESYSRuleDiagnostic;
+import pique.model.Diagnostic;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the SA rule diagnostics of a quality model by their numeric SA id (33 for SA0033), holding the diagnostic
+ * key, the rule id and the finding severity of every rule. Built once per model, it lets the rules parser resolve a
+ * line with an integer parse and an array lookup instead of splitting and concatenating key strings.
+ */
+class CODESYSRuleIndex {
+
+    // larger SA ids are not rules of the model, this bounds the index arrays
+    private static final int MAX_RULE_NUMBER = 9999;
+
+    private final Set<String> diagnosticKeys;
+    private final String[] keys;
+    private final String[] ruleIds;
+    private final int[] severities;
+
+    private CODESYSRuleIndex(Set<String> diagnosticKeys, String[] keys, String[] ruleIds, int[] severities) {
+        this.diagnosticKeys = diagnosticKeys;
+        this.keys = keys;
+        this.ruleIds = ruleIds;
+        this.severities = severities;
+    }
+
+    /**
+     * @param diagnostics the diagnostics of a quality model, keyed like "SA0033:Unused variables"
+     * @return index of every SA rule diagnostic in diagnostics
+     */
+    static CODESYSRuleIndex of(Map<String, Diagnostic> diagnostics) {
+        int size = 0;
+        for (String key : diagnostics.keySet()) {
+            size = Math.max(size, ruleNumberOfKey(key) + 1);
+        }
+        String[] keys = new String[size];
+        String[] ruleIds = new String[size];
+        int[] severities = new int[size];
+        for (Map.Entry<String, Diagnostic> diagnostic : diagnostics.entrySet()) {
+            int ruleNumber = ruleNumberOfKey(diagnostic.getKey());
+            if (ruleNumber >= 0 && diagnostic.getValue() instanceof CODESYSRuleDiagnostic) {
+                String key = diagnostic.getKey();
+                keys[ruleNumber] = key;
+                ruleIds[ruleNumber] = key.substring(0, key.indexOf(':'));
+                severities[ruleNumber] = severityToInt(((CODESYSRuleDiagnostic) diagnostic.getValue()).getImportance());
+            }
+        }
+        return new CODESYSRuleIndex(new HashSet<>(diagnostics.keySet()), keys, ruleIds, severities);
+    }
+
+    /**
+     * @return true if this index was built from a model with exactly the diagnostics of diagnostics
+     */
+    boolean matches(Map<String, Diagnostic> diagnostics) {
+        return diagnosticKeys.equals(diagnostics.keySet());
+    }
+
+    /**
+     * Resolves the indexed keys against one set of diagnostics, typically the copies handed out for a single parse.
+     *
+     * @return the rule diagnostics of diagnostics, indexed by SA number
+     */
+    CODESYSRuleDiagnostic[] bind(Map<String, Diagnostic> diagnostics) {
+        CODESYSRuleDiagnostic[] bound = new CODESYSRuleDiagnostic[keys.length];
+        for (int ruleNumber = 0; ruleNumber < keys.length; ruleNumber++) {
+            if (keys[ruleNumber] != null) {
+                bound[ruleNumber] = (CODESYSRuleDiagnostic) diagnostics.get(keys[ruleNumber]);
+            }
+        }
+        return bound;
+    }
+
+    String getRuleId(int ruleNumber) {
+        return ruleIds[ruleNumber];
+    }
+
+    int getSeverity(int ruleNumber) {
+        return severities[ruleNumber];
+    }
+
+    /**
+     * Parses the digits of an SA rule id in place, without building a String.
+     *
+     * @param text text holding the rule id
+     * @param idStart index of the 'S' of the rule id
+     * @param idEnd index just past the last digit
+     * @return the rule number, or -1 if it is not a number an index could hold
+     */
+    static int parseRuleNumber(CharSequence text, int idStart, int idEnd) {
+        if (idEnd - idStart < 3 || text.charAt(idStart) != 'S' || text.charAt(idStart + 1) != 'A') {
+            return -1;
+        }
+        int ruleNumber = 0;
+        for (int i = idStart + 2; i < idEnd; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            ruleNumber = ruleNumber * 10 + (c - '0');
+            if (ruleNumber > MAX_RULE_NUMBER) {
+                return -1;
+            }
+        }
+        return ruleNumber;
+    }
+
+    private static int ruleNumberOfKey(String key) {
+        int idEnd = key.indexOf(':');
+        return idEnd < 0 ? -1 : parseRuleNumber(key, 0, idEnd);
+    }
+
+    /**
+     * maps low-critical to numeric values based on the highest value for each range.
+     *
+     * @param severity a severity score based on industry standards
+     * @return the severity score
+     */
+    private static int severityToInt(String severity) {
+        int severityInt = 1;
+        switch (severity.toLowerCase()) {
+            case "low": {
+                severityInt = 1;
+                break;
+            }
+            case "medium": {
+                severityInt = 3;
+                break;
+            }
+            case "high": {
+                severityInt = 10;
+                break;
+            }
+        }
+
+        return severityInt;
+    }
+}
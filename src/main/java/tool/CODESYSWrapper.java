@@ -23,11 +23,14 @@
  */
 package tool;
 
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
-import com.google.common.primitives.Doubles;
+import evaluation.EvaluatorRegistry;
+import evaluation.FastMetricDiagnosticEvaluator;
+import evaluation.FastMetricFindingEvaluator;
 import model.CODESYSRuleDiagnostic;
+import model.MetricColumnFinding;
 import model.MetricFinding;
+import model.MetricMatrix;
 import model.RuleFinding;
 import org.apache.commons.compress.utils.FileNameUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -40,11 +43,16 @@ import pique.model.Diagnostic;
 import pique.model.Finding;
 
 import utilities.HelperFunctions;
+import utilities.PhaseMetrics;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 import static java.util.Objects.requireNonNull;
 
@@ -56,8 +64,19 @@ import static java.util.Objects.requireNonNull;
 public class CODESYSWrapper extends Tool implements ITool {
     private static final Logger LOGGER = LoggerFactory.getLogger(CODESYSWrapper.class);
 
+    // when set, each metric diagnostic gets a single MetricColumnFinding instead of one MetricFinding per POU
+    private final boolean columnFindings;
+
+    // SA rule index of the last model parsed against, rebuilt when the model's diagnostics change
+    private volatile CODESYSRuleIndex ruleIndex;
+
     public CODESYSWrapper() {
+        this(false);
+    }
+
+    public CODESYSWrapper(boolean columnFindings) {
         super("CODESYS", null);
+        this.columnFindings = columnFindings;
     }
 
     // Methods
@@ -87,7 +106,94 @@ public class CODESYSWrapper extends Tool implements ITool {
         System.out.println("Parsing analysis from " + this.getName() + " on project: " + toolResults);
         LOGGER.debug("Parsing analysis from " + this.getName() + " on project: " + toolResults);
 
-        Pair<Path, Path> benchmarkProjects;
+        Pair<Path, Path> benchmarkProjects = findToolOutput(toolResults);
+
+        Map<String, Diagnostic> diagnostics = HelperFunctions.initializeDiagnostics(this.getName());
+
+        int ruleFindings = PhaseMetrics.measure("parseRules", () -> attachRuleFindings(benchmarkProjects.getRight(), diagnostics));
+        PhaseMetrics.countFindings("rules", ruleFindings);
+        int metricFindings = PhaseMetrics.measure("parseMetrics", () -> attachMetricFindings(benchmarkProjects.getLeft(), diagnostics));
+        PhaseMetrics.countFindings("metrics", metricFindings);
+
+        return diagnostics;
+    }
+
+    /**
+     * Parses the rules output, findings are attached to their diagnostic as each line is read
+     *
+     * @return number of rule findings attached
+     */
+    private int attachRuleFindings(Path rulesFile, Map<String, Diagnostic> diagnostics) {
+        CODESYSRuleIndex ruleIndex = ruleIndexFor(diagnostics);
+        CODESYSRuleDiagnostic[] ruleDiagnostics = ruleIndex.bind(diagnostics);
+
+        String rulesFileName = rulesFile.toString();
+        int[] findings = {0};
+        scanRules(rulesFile, (line, idStart, idEnd, descriptionEnd) -> {
+            int ruleNumber = CODESYSRuleIndex.parseRuleNumber(line, idStart, idEnd);
+            if (ruleNumber >= 0 && ruleNumber < ruleDiagnostics.length && ruleDiagnostics[ruleNumber] != null) {
+                String ruleId = ruleIndex.getRuleId(ruleNumber);
+                String description = line.substring(idEnd + 1, descriptionEnd).trim();
+                Finding f = new RuleFinding(rulesFileName, ruleId, description, ruleIndex.getSeverity(ruleNumber));
+                //necessary to add more than one child
+                f.setName(ruleId + " - " + description);
+                ruleDiagnostics[ruleNumber].setChild(f);
+                findings[0]++;
+            }
+        });
+        return findings[0];
+    }
+
+    /**
+     * Parses the metrics output and attaches a finding for the metric values of every mapped metric
+     *
+     * @return number of metric values attached
+     */
+    private int attachMetricFindings(Path metricsFile, Map<String, Diagnostic> diagnostics) {
+        MetricMatrix formattedMetricsOutput = readMetrics(metricsFile);
+        String metricsFileName = metricsFile.toString();
+        int findings = 0;
+
+        //columns are metric names, loop through them all
+        for (int column = 0; column < formattedMetricsOutput.getMetricCount(); column++){
+            String metricName = formattedMetricsOutput.getMetricName(column);
+            Diagnostic diag = diagnostics.get(metricName);
+            if (diag != null){
+                findings += formattedMetricsOutput.getPouCount();
+                if (columnFindings) {
+                    if (formattedMetricsOutput.getPouCount() > 0) {
+                        Finding f = new MetricColumnFinding(metricsFileName, formattedMetricsOutput, column, -1);
+                        f.setName(metricName);
+                        diag.setChild(f);
+                    }
+                    continue;
+                }
+                // diagnostics that opt into fast-math evaluation get the matching finding evaluator
+                boolean fastMath = diag.getEval_strategyObj() instanceof FastMetricDiagnosticEvaluator;
+                double[] metricValues = formattedMetricsOutput.getColumn(column);
+                //rows are individual program metric values
+                for (int row = 0; row < formattedMetricsOutput.getPouCount(); row++){
+                    Finding f = fastMath
+                            ? new MetricFinding(metricsFileName, metricValues[row], -1, EvaluatorRegistry.getEvaluator(FastMetricFindingEvaluator.class))
+                            : new MetricFinding(metricsFileName, metricValues[row], -1);
+                    f.setName(formattedMetricsOutput.getPouName(row) + " - " + metricName);
+                    diag.setChild(f);
+                }
+            }else{
+                LOGGER.info("PLCOpen has not mapped metric: {" + metricName + "} to a quality attribute, therefore it is " +
+                        "not included in the model definition.");
+            }
+        }
+        return findings;
+    }
+
+    /**
+     * Picks the CODESYS output files out of a project directory
+     *
+     * @param toolResults directory holding the CODESYS output of one project
+     * @return the metrics csv on the left and the rules txt on the right, either is toolResults itself when not found
+     */
+    public static Pair<Path, Path> findToolOutput(Path toolResults) {
         Path metricsFile = toolResults;
         Path rulesFile = toolResults;
         // loop through every directory in benchmarks
@@ -108,68 +214,19 @@ public class CODESYSWrapper extends Tool implements ITool {
                 }
             }
         }
-        benchmarkProjects = new ImmutablePair<>(metricsFile, rulesFile);
-
-        Map<String, Diagnostic> diagnostics = HelperFunctions.initializeDiagnostics(this.getName());
-        Map<String, String> diagKeyMap = separateIdAndDescription(diagnostics);
-
-        //parse rules
-        List<List<String>> formattedRulesOutput= parseRules(benchmarkProjects.getRight());
-        for (List<String> row : formattedRulesOutput) {
-            if (!row.isEmpty()) { //will be empty if we encountered a SA internal tool error
-                String key = generateDiagnosticsKeyFromRulesOutput(row.get(0), diagKeyMap);
-                CODESYSRuleDiagnostic diag = (CODESYSRuleDiagnostic) diagnostics.get(key);
-                if (diag != null) {
-                    int severity = severityToInt(diag.getImportance());
-                    Finding f = new RuleFinding(benchmarkProjects.getRight().toString(), row.get(0), row.get(1), severity);
-                    //necessary to add more than one child
-                    f.setName(row.get(0) + " - " + row.get(1));
-                    diag.setChild(f);
-                    diagnostics.put(key, diag);
-                }
-            }
-        }
-
-        //parse metrics
-        Table<String, String, Double> formattedMetricsOutput = parseMetrics(benchmarkProjects.getLeft());
-
-        //columns are metric names, loop through them all
-        for (String column : formattedMetricsOutput.columnKeySet()){
-            Diagnostic diag = diagnostics.get(column);
-            if (diag != null){
-                //rows are individual program metric values
-                for (String row : formattedMetricsOutput.rowKeySet()){
-                    Finding f = new MetricFinding(benchmarkProjects.getLeft().toString(), formattedMetricsOutput.get(row, column), -1);
-                    f.setName(row + " - " + column);
-                    diag.setChild(f);
-                }
-            }else{
-                LOGGER.info("PLCOpen has not mapped metric: {" + column + "} to a quality attribute, therefore it is " +
-                        "not included in the model definition.");
-            }
-        }
-
-        //
-
-        return diagnostics;
+        return new ImmutablePair<>(metricsFile, rulesFile);
     }
 
-    private Map<String, String> separateIdAndDescription(Map<String, Diagnostic> diagnostics) {
-        Map<String, String> diagKeyBuilder = new HashMap<>();
-        for (String key : diagnostics.keySet()) {
-            if (key.contains("SA")) {
-                String[] defs = key.split(":");
-                diagKeyBuilder.put(defs[0], defs[1]);
-            }
+    /**
+     * @return the SA rule index of the model diagnostics were handed out from, built on first use
+     */
+    private CODESYSRuleIndex ruleIndexFor(Map<String, Diagnostic> diagnostics) {
+        CODESYSRuleIndex index = this.ruleIndex;
+        if (index == null || !index.matches(diagnostics)) {
+            index = CODESYSRuleIndex.of(diagnostics);
+            this.ruleIndex = index;
         }
-        return diagKeyBuilder;
-    }
-
-    private String generateDiagnosticsKeyFromRulesOutput(String rulesOutputLine, Map<String, String> keyBuilder) {
-        String[] keyValuePair = rulesOutputLine.split(":");
-        String diagnosticsValue = keyBuilder.get(keyValuePair[0]);
-
-        return keyValuePair[0] + ":" + diagnosticsValue;
+        return index;
     }
 
     /**
@@ -188,50 +245,22 @@ public class CODESYSWrapper extends Tool implements ITool {
      * @return a Table of information to be mapped in parseAnalysis()
      */
     public Table<String, String, Double> parseMetrics(Path toolOutput) {
-        int columnDefinitionLines = 2;  // There are two lines at the top of the example output file that define "columns" in the output
-        String delimiter = ";";
-        int ignoreLines = 3;
-        Table<String, String, Double> formattedToolOuput = HashBasedTable.create();
-        String metrics = "";    // This will be the tool output metrics file
+        return readMetrics(toolOutput).toTable();
+    }
 
+    /**
+     * Reads the metrics output of CODESYS tool into a dense matrix, see {@link CODESYSMetricsReader}
+     *
+     * @param toolOutput is a path to the metrics file output by CODESYS
+     * @return the metric values of every POU, empty if the file could not be read
+     */
+    public MetricMatrix readMetrics(Path toolOutput) {
         try {
-            metrics = HelperFunctions.readFileContent(toolOutput);
+            return CODESYSMetricsReader.read(toolOutput);
         } catch (IOException e) {
             LOGGER.info("No results to read from CODESYS.");
+            return new MetricMatrix(Collections.emptyList(), Collections.emptyList(), new double[0][]);
         }
-
-        String[] lines = metrics.split("\n");
-
-        // parse lines of output that define columns
-        ArrayList<String> columnKeys = new ArrayList<>();
-        for (int i = ignoreLines; i < columnDefinitionLines + ignoreLines; i++) {
-            String[] columnNames = lines[i].trim().split(delimiter);
-            String[] trimmedColumnNames;   // need a better way to do this
-            if (Objects.equals(columnNames[0], "")) {
-                trimmedColumnNames = Arrays.copyOfRange(columnNames, 1, columnNames.length);
-                Collections.addAll(columnKeys, trimmedColumnNames);
-            } else {
-                Collections.addAll(columnKeys, columnNames);
-            }
-        }
-
-        // parse rows of values
-        int startPoint = ignoreLines + columnDefinitionLines + 1;
-        for (int i = startPoint; i < lines.length; i++) {
-            ArrayList<String> row = new ArrayList<>();
-            String trimmedLine = lines[i].replaceFirst("\\s++\\S", "");
-            String[] line = trimmedLine.split(delimiter, -1);
-            Collections.addAll(row, line);
-
-            for (int j = 0; j < columnKeys.size(); j++) {
-                if (row.get(j + 1).isEmpty()) {
-                    // FIXME ---- hashBasedTable does not tolerate nulls so replace nulls with 0
-                    row.set(j + 1, "0");
-                }
-                formattedToolOuput.put(row.get(0), columnKeys.get(j), Doubles.tryParse(row.get(j + 1)));
-            }
-        }
-        return formattedToolOuput;
     }
 
     /**
@@ -241,72 +270,85 @@ public class CODESYSWrapper extends Tool implements ITool {
      * @return a List of list of strings representing diagnostic information to be mapped in parseAnalysis()
      */
     public List<List<String>> parseRules(Path toolOutput) {
-        String rules = "";
-        // Read in tool output
-        //example line: [ERROR]         Final Exam: CookieProcess [Device: PLC Logic: Final_Proj](Line 3 (Decl)): SA0033:  Unused Variable 'StartPB'
-        try {
-            rules = HelperFunctions.readFileContent(toolOutput);
-        } catch (IOException e) {
-            LOGGER.info("No results to read from CODESYS.");
-        }
-        return formatRulesOutput(rules);
+        List<List<String>> formattedOutput = new ArrayList<>();
+        streamRules(toolOutput, (ruleId, description) -> formattedOutput.add(Arrays.asList(ruleId, description)));
+        return formattedOutput;
     }
 
     /**
-     * Formats the tool output file into a List of lines (themselves represented as ArrayLists of strings)
-     * Extraneous detail is removed leaving SA number and description of the vulnerability
+     * Streams the rules output of CODESYS tool line by line, handing the SA number and description of every
+     * rule violation to ruleConsumer. Only one line is held in memory at a time, so this is safe for very large exports.
      *
-     * @param rules A raw String representation of the rules tool output
-     * @return formattedOutput An ArrayList containing ArrayLists of strings representing findings associated with a specific standard
+     * @param toolOutput is a path to the rules file output by CODESYS
+     * @param ruleConsumer receives the SA number (e.g. SA0033) and the description of each finding
      */
-    private List<List<String>> formatRulesOutput(String rules) {
-        int titleLines = 1;
-        List<List<String>> formattedOutput = new ArrayList<>();
-        String[] lines = rules.trim().split("\n");
-
-        for(int i = titleLines; i < lines.length - 2; i++) {
-            String[] line = lines[i].trim().split(":");
-            ArrayList<String> formattedLine = new ArrayList<>();
-            // should probably improve performance of this nested loop with more string formatting but this is good enough for now
-            //fix for SA internal error
-            if (!(line[0].contains("FATAL ERROR"))) {
-                for (int j = 0; j < line.length; j++) {
-                    //potentially FIXME -- robustify the SA parsing
-                    // --- Derek followup, ran into issue where the SA tool encountered an internal error, adding fix at higher level than this
-                    if (line[j].contains("SA")) {
-                        formattedLine.add(line[j].trim());
-                        formattedLine.add(line[j + 1].trim());
-                    }
+    public void streamRules(Path toolOutput, BiConsumer<String, String> ruleConsumer) {
+        scanRules(toolOutput, (line, idStart, idEnd, descriptionEnd) ->
+                ruleConsumer.accept(line.substring(idStart, idEnd), line.substring(idEnd + 1, descriptionEnd).trim()));
+    }
+
+    /**
+     * Locates the rule violation in every line of the rules output of CODESYS tool without copying anything out of
+     * the line, see {@link #streamRules(Path, BiConsumer)}.
+     */
+    private void scanRules(Path toolOutput, RuleLineConsumer ruleConsumer) {
+        //example line: [ERROR]         Final Exam: CookieProcess [Device: PLC Logic: Final_Proj](Line 3 (Decl)): SA0033:  Unused Variable 'StartPB'
+        try (BufferedReader reader = Files.newBufferedReader(toolOutput, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                HelperFunctions.checkNotInterrupted(toolOutput);
+                int idStart = findRuleIdStart(line);
+                if (idStart < 0) {
+                    // title, summary, or SA internal tool error lines
+                    continue;
+                }
+                int idEnd = line.indexOf(':', idStart);
+                // description runs up to the next ':' to match the tokenizing the model keys were built from
+                int descriptionEnd = line.indexOf(':', idEnd + 1);
+                if (descriptionEnd < 0) {
+                    descriptionEnd = line.length();
                 }
+                ruleConsumer.accept(line, idStart, idEnd, descriptionEnd);
             }
-            formattedOutput.add(formattedLine);
+        } catch (IOException e) {
+            LOGGER.info("No results to read from CODESYS.");
         }
-        return formattedOutput;
     }
 
     /**
-     * maps low-critical to numeric values based on the highest value for each range.
+     * Finds the start of the SA rule id in a single line of rules output, skipping lines where the
+     * SA tool encountered an internal error.
      *
-     * @param severity a severity score based on industry standards
-     * @return the severity score as an Integer object
+     * @param line one line of the rules output
+     * @return index of the 'S' in the SA rule id, or -1 if the line does not hold a finding
      */
-    private Integer severityToInt(String severity) {
-        Integer severityInt = 1;
-        switch (severity.toLowerCase()) {
-            case "low": {
-                severityInt = 1;
-                break;
+    private int findRuleIdStart(String line) {
+        int firstColon = line.indexOf(':');
+        if (firstColon < 0 || line.lastIndexOf("FATAL ERROR", firstColon) >= 0) {
+            return -1;
+        }
+        int length = line.length();
+        for (int i = line.indexOf("SA", firstColon); i >= 0; i = line.indexOf("SA", i + 2)) {
+            char previous = line.charAt(i - 1);
+            if (previous != ' ' && previous != ':') {
+                continue;
             }
-            case "medium": {
-                severityInt = 3;
-                break;
+            int j = i + 2;
+            while (j < length && Character.isDigit(line.charAt(j))) {
+                j++;
             }
-            case "high": {
-                severityInt = 10;
-                break;
+            if (j > i + 2 && j < length && line.charAt(j) == ':') {
+                return i;
             }
         }
+        return -1;
+    }
 
-        return severityInt;
+    /**
+     * Receives the positions of the SA rule id and description within one line of rules output
+     */
+    @FunctionalInterface
+    private interface RuleLineConsumer {
+        void accept(String line, int idStart, int idEnd, int descriptionEnd);
     }
 }
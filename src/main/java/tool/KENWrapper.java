@@ -1,25 +1,63 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
 package tool;
 
-import org.apache.commons.io.FileUtils;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import model.MetricFinding;
 import org.apache.commons.io.FilenameUtils;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pique.analysis.ITool;
 import pique.analysis.Tool;
 import pique.model.Diagnostic;
+import pique.model.Finding;
 import utilities.HelperFunctions;
+import utilities.PhaseMetrics;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * This class wraps the KEN PLC project analyzer. KEN writes one json file per program, with an object per metric:
+ * <pre>
+ * {"Number_of_lines": {"value": 1200}, "Program_names": {"value": [...]}, ...}
+ * </pre>
+ * Metrics whose name matches a KEN diagnostic of the model become a {@link MetricFinding} of that diagnostic. The
+ * output is pulled through a streaming reader that skips every other value without building it, so large lists such
+ * as Program_names cost no more than reading past them.
+ */
 public class KENWrapper extends Tool implements ITool {
-    private static final Logger LOGGER = LoggerFactory.getLogger(CODESYSWrapper.class);
+    private static final Logger LOGGER = LoggerFactory.getLogger(KENWrapper.class);
 
     public KENWrapper() {
         super("KEN", null);
@@ -31,39 +69,122 @@ public class KENWrapper extends Tool implements ITool {
         return path;
     }
 
+    /**
+     * parses output of tool from analyze().
+     *
+     * @param toolResults location of the results, output by analyze()
+     * @return A Map<String,Diagnostic> with findings from the tool attached, empty if the model has no KEN diagnostics
+     */
     @Override
     public Map<String, Diagnostic> parseAnalysis(Path toolResults) {
-        System.out.println("Parsing analysis from " + this.getName() + " on project: " + toolResults);
+        Map<String, Diagnostic> diagnostics = HelperFunctions.initializeDiagnostics(this.getName());
+        if (diagnostics.isEmpty()) {
+            // the model does not use KEN, leave its output unread
+            return diagnostics;
+        }
+
         LOGGER.debug("Parsing analysis from " + this.getName() + " on project: " + toolResults);
 
-        Map<String, Diagnostic> diagnostics = HelperFunctions.initializeDiagnostics(this.getName());
+        int findings = PhaseMetrics.measure("parseKEN", () -> {
+            int attached = 0;
+            for (Path kenOutput : findToolOutput(toolResults)) {
+                try {
+                    attached += attachMetricFindings(kenOutput, diagnostics);
+                } catch (IOException | IllegalStateException e) {
+                    LOGGER.error("JSON parsing error in parseAnalysis of KENWrapper for " + kenOutput, e);
+                }
+            }
+            return attached;
+        });
+        PhaseMetrics.countFindings("ken", findings);
 
-        if (toolResults.toFile().isDirectory()) {
-            for (File benchmarkOutputFile : requireNonNull(toolResults.toFile().listFiles())) {
-                if (FilenameUtils.getExtension(benchmarkOutputFile.getName()).equals("json")){
-                    //found KEN output file, begin parsing
-                    try{
-                        String stringResults = HelperFunctions.readFileContent(benchmarkOutputFile.toPath());
-                        JSONObject jsonResults = new JSONObject(stringResults);
-                        String numberOfLines = (jsonResults.optJSONObject("Number_of_lines")).get("value").toString();
-                        String codeSize = (jsonResults.optJSONObject("File_size")).get("value").toString();
-                        String numberRungs = (jsonResults.optJSONObject("Number_of_rungs")).get("value").toString();
-                        String numberPOUs = (jsonResults.optJSONObject("Number_of_POUs")).get("value").toString();
-                        String programNames = (jsonResults.optJSONObject("Program_names")).get("value").toString();
-                        String number61131LanguagesUsed = (jsonResults.optJSONObject("Number_of_languages")).get("value").toString();
+        return diagnostics;
+    }
 
-                    }catch (JSONException e){
-                        e.printStackTrace();
-                        LOGGER.error("JSON parsing error in parseAnalysis of KENWrapper: \n\t" + e);
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                        LOGGER.error("File import parsing error in parseAnalysis of KENWrapper: \n\t" + e);
-                    }
+    /**
+     * Reads one KEN output file and attaches a finding to the diagnostic of every metric the model knows
+     *
+     * @return number of findings attached
+     */
+    public int attachMetricFindings(Path kenOutput, Map<String, Diagnostic> diagnostics) throws IOException {
+        String kenOutputName = kenOutput.toString();
+        int findings = 0;
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(kenOutput, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                HelperFunctions.checkNotInterrupted(kenOutput);
+                Diagnostic diagnostic = diagnostics.get(reader.nextName());
+                if (diagnostic == null) {
+                    reader.skipValue();
+                    continue;
                 }
+                Double value = readValue(reader);
+                if (value == null) {
+                    LOGGER.info("KEN metric {" + diagnostic.getName() + "} in " + kenOutput + " has no numeric value");
+                    continue;
+                }
+                Finding f = new MetricFinding(kenOutputName, value, -1);
+                f.setName(kenOutput.getFileName() + " - " + diagnostic.getName());
+                diagnostic.setChild(f);
+                findings++;
             }
+            reader.endObject();
         }
+        return findings;
+    }
 
-        return diagnostics;
+    /**
+     * Reads a metric object, e.g. {"value": 1200}
+     *
+     * @return its numeric value, or null if it has none
+     */
+    private static Double readValue(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        Double value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"value".equals(reader.nextName())) {
+                reader.skipValue();
+            } else if (reader.peek() == JsonToken.NUMBER) {
+                value = reader.nextDouble();
+            } else if (reader.peek() == JsonToken.STRING) {
+                // numbers KEN quoted as strings
+                value = parseDouble(reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    private static Double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Picks the KEN output files out of a project directory
+     *
+     * @param toolResults directory holding the KEN output of one project
+     * @return every json file in toolResults, empty if it is not a directory
+     */
+    public static List<Path> findToolOutput(Path toolResults) {
+        List<Path> kenOutputs = new ArrayList<>();
+        if (toolResults.toFile().isDirectory()) {
+            for (File benchmarkOutputFile : requireNonNull(toolResults.toFile().listFiles())) {
+                if (FilenameUtils.getExtension(benchmarkOutputFile.getName()).equals("json")) {
+                    kenOutputs.add(benchmarkOutputFile.toPath());
+                }
+            }
+        }
+        return kenOutputs;
     }
 
     @Override
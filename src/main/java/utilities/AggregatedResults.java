@@ -0,0 +1,175 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package utilities;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pique.evaluation.Project;
+import pique.model.ModelNode;
+import pique.model.QualityModel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Single results file for a whole fleet of projects: every evaluated project is appended as one json line holding
+ * its TQI, quality aspect and product factor scores, so a dashboard reads one file instead of one results file per
+ * project.
+ * <pre>
+ * {"project", "model", "evaluated", "tqi", "quality_aspects": {name: value}, "product_factors": {name: value}}
+ * </pre>
+ * A project evaluated again gets a new line, the last line of a project holds its current scores. Each line is
+ * appended with a single write under a file lock, so evaluators in this and in other processes can share the file.
+ */
+public class AggregatedResults {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AggregatedResults.class);
+
+    private static final String FILE_NAME = "evalResults.ndjson";
+    // file locks are held per JVM, so threads of this JVM queue here before taking the lock
+    private static final Object WRITE_LOCK = new Object();
+
+    private final Path resultsFile;
+
+    public AggregatedResults(Path resultsFile) {
+        this.resultsFile = resultsFile;
+    }
+
+    /**
+     * @return the aggregated results file kept in resultsDirectory
+     */
+    public static Path resultsFileFor(Path resultsDirectory) {
+        return resultsDirectory.resolve(FILE_NAME);
+    }
+
+    /**
+     * Appends the scores of an evaluated project as a single line
+     */
+    public void append(Project project) {
+        append(row(project));
+    }
+
+    /**
+     * Appends row as a single line. Safe to call from several threads and processes at once.
+     */
+    public void append(JsonObject row) {
+        byte[] line = (row.toString() + '\n').getBytes(StandardCharsets.UTF_8);
+        synchronized (WRITE_LOCK) {
+            try {
+                if (resultsFile.toAbsolutePath().getParent() != null) {
+                    Files.createDirectories(resultsFile.toAbsolutePath().getParent());
+                }
+                try (FileChannel channel = FileChannel.open(resultsFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    // other processes appending to the same file wait for this line
+                    FileLock lock = channel.lock();
+                    try {
+                        ByteBuffer buffer = ByteBuffer.wrap(line);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    } finally {
+                        lock.release();
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Could not append results of " + row.get("project") + " to " + resultsFile, e);
+            }
+        }
+    }
+
+    /**
+     * @return the row appended for project
+     */
+    static JsonObject row(Project project) {
+        QualityModel qualityModel = project.getQualityModel();
+        JsonObject row = new JsonObject();
+        row.addProperty("project", project.getName());
+        row.addProperty("model", qualityModel.getName());
+        row.addProperty("evaluated", Instant.now().toString());
+        row.addProperty("tqi", qualityModel.getTqi().getValue());
+        row.add("quality_aspects", values(qualityModel.getQualityAspects()));
+        row.add("product_factors", values(qualityModel.getProductFactors()));
+        return row;
+    }
+
+    private static JsonObject values(Map<String, ModelNode> nodes) {
+        JsonObject values = new JsonObject();
+        for (ModelNode node : nodes.values()) {
+            values.addProperty(node.getName(), node.getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Passes every row of the file to rowConsumer in the order they were appended. A line still being written by
+     * another process is skipped.
+     */
+    public void forEachRow(Consumer<JsonObject> rowConsumer) throws IOException {
+        if (!Files.exists(resultsFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(resultsFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                JsonObject row;
+                try {
+                    row = JsonParser.parseString(line).getAsJsonObject();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Skipping incomplete row in " + resultsFile);
+                    continue;
+                }
+                rowConsumer.accept(row);
+            }
+        }
+    }
+
+    /**
+     * @return the most recent row of every project in the file, keyed by project
+     */
+    public Map<String, JsonObject> latestRows() throws IOException {
+        Map<String, JsonObject> latest = new LinkedHashMap<>();
+        forEachRow(row -> latest.put(row.get("project").getAsString(), row));
+        return latest;
+    }
+
+    public Path getResultsFile() {
+        return resultsFile;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package utilities;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk record of which projects have already been evaluated, keyed by a content hash of everything the
+ * evaluation reads (tool output files, the derived model and the configuration). A project whose key is unchanged
+ * and whose exported results still exist does not need to be parsed or evaluated again.
+ *
+ * One small properties file per project is kept in the cache directory, so parallel workers never write the same file.
+ */
+public class EvaluationCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EvaluationCache.class);
+
+    // bump when the cache entries or the exported results change shape, so entries of older builds are not reused
+    private static final int CACHE_FORMAT = 1;
+
+    private static final String KEY_PROPERTY = "key";
+    private static final String PROJECT_PROPERTY = "project";
+    private static final String OUTPUTS_PROPERTY = "outputs";
+
+    private final Path cacheDirectory;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public EvaluationCache(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * @param inputs files the evaluation reads, missing files and directories are hashed by name only
+     * @param configuration properties the evaluation ran with, including the version of this tool
+     * @return hex content hash over the cache format, inputs and configuration
+     */
+    public static String key(List<Path> inputs, Properties configuration) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putInt(CACHE_FORMAT);
+        hasher.putString(configuration.getProperty("version", ""), StandardCharsets.UTF_8).putChar('\n');
+        for (Path input : inputs) {
+            hasher.putString(input.getFileName().toString(), StandardCharsets.UTF_8);
+            if (Files.isRegularFile(input)) {
+                try {
+                    hasher.putBytes(com.google.common.io.Files.asByteSource(input.toFile()).hash(Hashing.sha256()).asBytes());
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not hash evaluation input " + input, e);
+                }
+            }
+        }
+        // sorted so the key does not depend on property iteration order
+        new TreeMap<>(configuration).forEach((name, value) ->
+                hasher.putString(name + "=" + value, StandardCharsets.UTF_8).putChar('\n'));
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Counts a hit or a miss for project.
+     *
+     * @return the results exported by the previous evaluation of project, or null if project has to be evaluated
+     */
+    public List<Path> lookup(Path project, String key) {
+        List<Path> outputs = readEntry(project, key);
+        if (outputs == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return outputs;
+    }
+
+    /**
+     * Records that project was evaluated with key and exported to outputs
+     */
+    public void store(Path project, String key, List<Path> outputs) {
+        Properties entry = new Properties();
+        entry.setProperty(PROJECT_PROPERTY, project.toAbsolutePath().normalize().toString());
+        entry.setProperty(KEY_PROPERTY, key);
+        List<String> outputNames = new ArrayList<>();
+        for (Path output : outputs) {
+            outputNames.add(output.toAbsolutePath().normalize().toString());
+        }
+        entry.setProperty(OUTPUTS_PROPERTY, String.join(File.pathSeparator, outputNames));
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path entryFile = entryFile(project);
+            Path temporary = Files.createTempFile(cacheDirectory, entryFile.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                entry.store(out, null);
+            }
+            Files.move(temporary, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // a lost entry only costs a re-evaluation next run
+            LOGGER.error("Could not record evaluation of " + project + " in " + cacheDirectory, e);
+        }
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    private List<Path> readEntry(Path project, String key) {
+        Path entryFile = entryFile(project);
+        if (!Files.isRegularFile(entryFile)) {
+            return null;
+        }
+        Properties entry = new Properties();
+        try (InputStream in = Files.newInputStream(entryFile)) {
+            entry.load(in);
+        } catch (IOException e) {
+            LOGGER.error("Could not read evaluation cache entry " + entryFile, e);
+            return null;
+        }
+        if (!key.equals(entry.getProperty(KEY_PROPERTY))
+                || !project.toAbsolutePath().normalize().toString().equals(entry.getProperty(PROJECT_PROPERTY))) {
+            return null;
+        }
+        List<Path> outputs = new ArrayList<>();
+        for (String output : entry.getProperty(OUTPUTS_PROPERTY, "").split(File.pathSeparator)) {
+            if (output.isEmpty() || !Files.isRegularFile(Paths.get(output))) {
+                // results were moved or deleted since, evaluate again
+                return null;
+            }
+            outputs.add(Paths.get(output));
+        }
+        return outputs;
+    }
+
+    private Path entryFile(Path project) {
+        String projectHash = Hashing.sha256()
+                .hashString(project.toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8).toString();
+        return cacheDirectory.resolve(projectHash.substring(0, 32) + ".properties");
+    }
+}
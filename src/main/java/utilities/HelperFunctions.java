@@ -23,22 +23,22 @@
  */
 package utilities;
 
-import model.PLCQualityModelImport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pique.model.Diagnostic;
-import pique.model.ModelNode;
-import pique.model.QualityModel;
 import pique.utility.PiqueProperties;
 
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Stream;
 
 /**
@@ -66,32 +66,33 @@ public class HelperFunctions {
 	}
 
 	 /**
-	  * Taken directly from https://stackoverflow.com/questions/13008526/runtime-getruntime-execcmd-hanging
-	  * 
-	  * @param program - A string as would be passed to Runtime.getRuntime().exec(program)
+	  * Runs program on the shared {@link ProcessRunner} and collects its output
+	  *
+	  * @param program - the command and its arguments
 	  * @return the text output of the command. Includes input and error.
 	  * @throws IOException
+	  * @deprecated buffers the whole output and waits for the program indefinitely, run analyzers through
+	  * {@link ProcessRunner} to stream their output with a timeout
 	  */
+	@Deprecated
 	public static String getOutputFromProgram(String[] program, Logger logger) throws IOException {
-		if(logger!=null) logger.debug("Executing: " + String.join(" ", program));
-	    Process proc = Runtime.getRuntime().exec(program);
-	    return Stream.of(proc.getErrorStream(), proc.getInputStream()).parallel().map((InputStream isForOutput) -> {
-	        StringBuilder output = new StringBuilder();
-	        try (BufferedReader br = new BufferedReader(new InputStreamReader(isForOutput))) {
-	            String line;
-	            while ((line = br.readLine()) != null) {
-	            	if(logger!=null) {
-	            		logger.debug(line);
-	            	}
-	                output.append(line);
-	                output.append("\n");
-	            }
-	        } catch (IOException e) {
-	        	logger.error("Failed to get output of execution.");
-	            throw new RuntimeException(e);
-	        }
-	        return output;
-	    }).collect(Collectors.joining());
+		StringBuilder output = new StringBuilder();
+		try {
+			ProcessRunner.shared().run(Arrays.asList(program), null, line -> {
+				if (logger != null) {
+					logger.debug(line);
+				}
+				output.append(line);
+				output.append("\n");
+			}, Charset.defaultCharset(), 0, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while running " + String.join(" ", program), e);
+		} catch (TimeoutException e) {
+			// no timeout is set
+			throw new IOException(e);
+		}
+		return output.toString();
 	}
 	
 	 /**
@@ -124,28 +125,27 @@ public class HelperFunctions {
 	 * @return All diagnostics in the model structure with tool equal to toolName
 	 */
 	public static Map<String, Diagnostic> initializeDiagnostics(String toolName) {
-		// load the qm structure
+		// load the qm structure, the blank model is parsed once and shared across tools and projects
 		Properties prop = PiqueProperties.getProperties();
 		Path blankqmFilePath = Paths.get(prop.getProperty("blankqm.filepath"));
-		// FIXME importing the quality model twice, this is redundant. Tough find.
-		PLCQualityModelImport qmImport = new PLCQualityModelImport(blankqmFilePath);
 		// TODO for this model, we can improve accuracy of results by writing a custom quality model importer that initiates CODESYSRuleDiagnostic objects instead of Diagnostic objects.
-        QualityModel qmDescription = qmImport.importQualityModel();
+		Map<String, Diagnostic> diagnostics = QualityModelCache.getDiagnostics(blankqmFilePath, toolName);
 
-        Map<String, Diagnostic> diagnostics = new HashMap<>();
-        
-        // for each diagnostic in the model, if it is associated with this tool, 
-        // add it to the list of diagnostics
-        for (ModelNode x : qmDescription.getDiagnostics().values()) {
-        	Diagnostic diag = (Diagnostic) x;
-        	if (diag.getToolName().equals(toolName)) {
-        		diagnostics.put(diag.getName(),diag);
-        	}
-        }
-       
 		return diagnostics;
 	}
 
+	/**
+	 * Stops a tool's parse once the thread running it was interrupted, e.g. because the tool ran past its timeout and
+	 * was cancelled. Called once per line or entry of tool output, so a cancelled parse does not run on unnoticed.
+	 * @param toolOutput the file being parsed
+	 * @throws CancellationException if the current thread was interrupted
+	 */
+	public static void checkNotInterrupted(Path toolOutput) {
+		if (Thread.currentThread().isInterrupted()) {
+			throw new CancellationException("Parsing of " + toolOutput + " was interrupted");
+		}
+	}
+
 	public static String formatFileWithSpaces(String pathWithSpace) {
 		String retString = pathWithSpace.replaceAll("([a-zA-Z]*) ([a-zA-Z]*)", "'$1 $2'");
 		return retString;
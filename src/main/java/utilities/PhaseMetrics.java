@@ -0,0 +1,207 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package utilities;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-project record of how long each phase of a run took: wall time, CPU time and bytes allocated, plus the number
+ * of findings parsed. A record is bound to the thread working on the project, so code deep in a run (e.g. the tool
+ * wrappers) reports through the static {@link #measure} and {@link #countFindings} without any record being passed
+ * around; outside a record they just run the phase.
+ *
+ * Work a run hands to other threads is recorded by attaching the run's record to them, see {@link #attach}.
+ * CPU time and allocations are those of the measuring thread, and are -1 where the JVM does not provide them.
+ * Records are appended as one json object per line to the metrics file, see {@link #metricsFileFor(Path)}.
+ */
+public class PhaseMetrics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PhaseMetrics.class);
+
+    private static final ThreadLocal<PhaseMetrics> CURRENT = new ThreadLocal<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final Object WRITE_LOCK = new Object();
+    private static final String METRICS_FILE_NAME = "phaseMetrics.ndjson";
+
+    private final String run;
+    private final String project;
+    private final Instant started = Instant.now();
+    // threads attached to the same record add to it concurrently
+    private final List<JsonObject> phases = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Long> findings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private PhaseMetrics(String run, String project) {
+        this.run = run;
+        this.project = project;
+    }
+
+    /**
+     * Starts a record for project on the current thread, replacing any record the thread had
+     *
+     * @param run kind of run, e.g. evaluate or derive
+     */
+    public static PhaseMetrics begin(String run, String project) {
+        PhaseMetrics metrics = new PhaseMetrics(run, project);
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    /**
+     * Binds metrics to the current thread, so phases it measures are added to a record begun on another thread
+     *
+     * @param metrics record to add to, null detaches the current thread's record
+     */
+    public static void attach(PhaseMetrics metrics) {
+        if (metrics == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(metrics);
+        }
+    }
+
+    /**
+     * Detaches the current thread's record, if any
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the record of the current thread, or null if it is not recording
+     */
+    public static PhaseMetrics current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T measure(String phase, Supplier<T> body) {
+        PhaseMetrics metrics = CURRENT.get();
+        if (metrics == null) {
+            return body.get();
+        }
+        long wallStart = System.nanoTime();
+        long cpuStart = cpuTime();
+        long allocatedStart = allocatedBytes();
+        try {
+            return body.get();
+        } finally {
+            JsonObject measurement = new JsonObject();
+            measurement.addProperty("phase", phase);
+            measurement.addProperty("wallNanos", System.nanoTime() - wallStart);
+            measurement.addProperty("cpuNanos", cpuStart < 0 ? -1 : cpuTime() - cpuStart);
+            measurement.addProperty("allocatedBytes", allocatedStart < 0 ? -1 : allocatedBytes() - allocatedStart);
+            metrics.phases.add(measurement);
+        }
+    }
+
+    public static void measure(String phase, Runnable body) {
+        measure(phase, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Adds count findings of the given kind (e.g. rules, metrics) to the current thread's record
+     */
+    public static void countFindings(String kind, long count) {
+        PhaseMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.findings.merge(kind, count, Long::sum);
+        }
+    }
+
+    /**
+     * @return the metrics file kept in resultsDirectory, so it lands wherever the results are mounted
+     */
+    public static Path metricsFileFor(Path resultsDirectory) {
+        return resultsDirectory.toAbsolutePath().normalize().resolve(METRICS_FILE_NAME);
+    }
+
+    /**
+     * Appends this record as a single json line to metricsFile. Safe to call from several threads at once.
+     */
+    public void writeTo(Path metricsFile) {
+        JsonObject record = new JsonObject();
+        record.addProperty("run", run);
+        record.addProperty("project", project);
+        record.addProperty("started", started.toString());
+        JsonArray phaseArray = new JsonArray();
+        synchronized (phases) {
+            phases.forEach(phaseArray::add);
+        }
+        record.add("phases", phaseArray);
+        JsonObject findingCounts = new JsonObject();
+        synchronized (findings) {
+            findings.forEach(findingCounts::addProperty);
+        }
+        record.add("findings", findingCounts);
+
+        synchronized (WRITE_LOCK) {
+            try {
+                Files.createDirectories(metricsFile.toAbsolutePath().getParent());
+            } catch (IOException e) {
+                LOGGER.error("Could not create the directory of " + metricsFile, e);
+            }
+            try (Writer writer = Files.newBufferedWriter(metricsFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(record.toString());
+                writer.write('\n');
+            } catch (IOException e) {
+                LOGGER.error("Could not write phase metrics of " + project + " to " + metricsFile, e);
+            }
+        }
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
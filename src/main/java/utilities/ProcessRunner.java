@@ -0,0 +1,235 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package utilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Runs analyzer processes such as CODESYS or KEN from the command line. At most maxProcesses run at once, callers
+ * beyond that wait for a slot. Output is never collected in memory: it is either redirected to a file by the
+ * operating system, or handed line by line to a consumer on a thread of this runner. Standard error is merged into
+ * standard output. A process that runs past its timeout, or whose caller is interrupted, is killed.
+ */
+public class ProcessRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessRunner.class);
+    // time the output of a finished process gets to drain before the runner gives up on it
+    private static final long DRAIN_MILLIS = 5000;
+
+    private static volatile ProcessRunner shared = new ProcessRunner(Runtime.getRuntime().availableProcessors());
+
+    private final int maxProcesses;
+    private final Semaphore slots;
+    // runs submitted processes, one thread per slot
+    private final ExecutorService executor;
+    // reads the output of running processes, at most one reader per running process
+    private final ExecutorService readers;
+
+    public ProcessRunner(int maxProcesses) {
+        this.maxProcesses = Math.max(1, maxProcesses);
+        this.slots = new Semaphore(this.maxProcesses, true);
+        this.executor = Executors.newFixedThreadPool(this.maxProcesses, daemonThreads("process-runner"));
+        this.readers = Executors.newCachedThreadPool(daemonThreads("process-output"));
+    }
+
+    /**
+     * @return the runner shared by the tool wrappers
+     */
+    public static ProcessRunner shared() {
+        return shared;
+    }
+
+    /**
+     * Replaces the shared runner with one allowing maxProcesses at once. Processes of the previous runner finish
+     * undisturbed, then its threads end.
+     */
+    public static synchronized void setShared(int maxProcesses) {
+        if (shared.maxProcesses != maxProcesses) {
+            ProcessRunner previous = shared;
+            shared = new ProcessRunner(maxProcesses);
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Stops accepting processes. Running processes and the reading of their output finish undisturbed.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        readers.shutdown();
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown() && readers.isShutdown();
+    }
+
+    /**
+     * Runs command and redirects its output to outputFile
+     *
+     * @param timeout how long the process may run, 0 for no limit
+     * @return exit code of the process
+     * @throws TimeoutException if the process was killed for running past timeout
+     */
+    public int run(List<String> command, Path workingDirectory, Path outputFile, long timeout, TimeUnit unit)
+            throws IOException, InterruptedException, TimeoutException {
+        ProcessBuilder builder = builder(command, workingDirectory).redirectOutput(outputFile.toFile());
+        return run(builder, null, null, timeout, unit);
+    }
+
+    /**
+     * Runs command and passes each line of its output to outputLines, on a thread of this runner
+     *
+     * @param timeout how long the process may run, 0 for no limit
+     * @return exit code of the process
+     * @throws TimeoutException if the process was killed for running past timeout
+     * @throws IOException if the output could not be read to its end, also when the process exited but something it
+     * left running kept its output open
+     */
+    public int run(List<String> command, Path workingDirectory, Consumer<String> outputLines, Charset charset,
+                   long timeout, TimeUnit unit) throws IOException, InterruptedException, TimeoutException {
+        return run(builder(command, workingDirectory), outputLines, charset, timeout, unit);
+    }
+
+    /**
+     * Runs command on a thread of this runner, see {@link #run(List, Path, Path, long, TimeUnit)}. Cancelling the
+     * returned future with interruption kills the process.
+     */
+    public Future<Integer> submit(List<String> command, Path workingDirectory, Path outputFile, long timeout, TimeUnit unit) {
+        return executor.submit(() -> run(command, workingDirectory, outputFile, timeout, unit));
+    }
+
+    /**
+     * Runs command on a thread of this runner, see {@link #run(List, Path, Consumer, Charset, long, TimeUnit)}.
+     * Cancelling the returned future with interruption kills the process.
+     */
+    public Future<Integer> submit(List<String> command, Path workingDirectory, Consumer<String> outputLines,
+                                  Charset charset, long timeout, TimeUnit unit) {
+        return executor.submit(() -> run(command, workingDirectory, outputLines, charset, timeout, unit));
+    }
+
+    private static ProcessBuilder builder(List<String> command, Path workingDirectory) {
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+        if (workingDirectory != null) {
+            builder.directory(workingDirectory.toFile());
+        }
+        return builder;
+    }
+
+    private int run(ProcessBuilder builder, Consumer<String> outputLines, Charset charset, long timeout, TimeUnit unit)
+            throws IOException, InterruptedException, TimeoutException {
+        String command = String.join(" ", builder.command());
+        slots.acquire();
+        Process process = null;
+        Future<?> reader = null;
+        try {
+            LOGGER.debug("Executing: " + command);
+            process = builder.start();
+            process.getOutputStream().close();
+            if (outputLines != null) {
+                Process started = process;
+                reader = readers.submit(() -> readLines(started, outputLines, charset));
+            }
+
+            if (timeout > 0) {
+                if (!process.waitFor(timeout, unit)) {
+                    throw new TimeoutException("Process did not finish within " + timeout + " " + unit + ": " + command);
+                }
+            } else {
+                process.waitFor();
+            }
+            if (reader != null) {
+                // the process is done and its output ends with it, unless a child process it left behind holds on to it
+                if (timeout > 0) {
+                    try {
+                        reader.get(DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        // the process itself finished in time, only its output is incomplete
+                        throw new IOException("Output of " + command + " did not end within " + DRAIN_MILLIS
+                                + " ms after the process exited with " + process.exitValue());
+                    }
+                } else {
+                    reader.get();
+                }
+            }
+            return process.exitValue();
+        } catch (ExecutionException e) {
+            throw new IOException("Could not read the output of " + command, e.getCause());
+        } finally {
+            if (process != null) {
+                if (process.isAlive()) {
+                    LOGGER.warn("Killing " + command);
+                    process.destroyForcibly();
+                }
+                if (reader != null && !reader.isDone()) {
+                    // unblocks the reader, also when a child process left behind keeps the output open
+                    try {
+                        process.getInputStream().close();
+                    } catch (IOException e) {
+                        LOGGER.debug("Could not close the output of " + command, e);
+                    }
+                    reader.cancel(true);
+                }
+            }
+            slots.release();
+        }
+    }
+
+    private static Void readLines(Process process, Consumer<String> outputLines, Charset charset) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), charset))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                outputLines.accept(line);
+            }
+        }
+        return null;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public int getMaxProcesses() {
+        return maxProcesses;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package utilities;
+
+import model.PLCQualityModelImport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pique.model.Diagnostic;
+import pique.model.ModelNode;
+import pique.model.QualityModel;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of imported quality models, keyed by file path and modification time.
+ * Each quality model file is parsed once; callers receive deep copies so they are free to attach
+ * findings and evaluate without affecting other projects.
+ */
+public class QualityModelCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QualityModelCache.class);
+
+    private static final Map<Path, CachedModel> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * @param qmFilePath path to a quality model json file
+     * @return a deep copy of the quality model stored at qmFilePath
+     */
+    public static QualityModel getQualityModel(Path qmFilePath) {
+        return load(qmFilePath).clone();
+    }
+
+    /**
+     * Finds all diagnostics associated with a certain toolName in the quality model at qmFilePath
+     *
+     * @param qmFilePath path to a quality model json file
+     * @param toolName The desired tool name
+     * @return deep copies of all diagnostics in the model structure with tool equal to toolName, keyed by name
+     */
+    public static Map<String, Diagnostic> getDiagnostics(Path qmFilePath, String toolName) {
+        Map<String, Diagnostic> diagnostics = new HashMap<>();
+        for (ModelNode x : load(qmFilePath).getDiagnostics().values()) {
+            Diagnostic diag = (Diagnostic) x;
+            if (diag.getToolName().equals(toolName)) {
+                diagnostics.put(diag.getName(), (Diagnostic) diag.clone());
+            }
+        }
+        return diagnostics;
+    }
+
+    /**
+     * Drops every cached quality model, forcing the next request to re-import from disk
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private static QualityModel load(Path qmFilePath) {
+        Path key = qmFilePath.toAbsolutePath().normalize();
+        long lastModified = key.toFile().lastModified();
+        // compute() holds the entry while importing, so concurrent callers wait for a single parse
+        return CACHE.compute(key, (path, cached) -> {
+            if (cached != null && cached.lastModified == lastModified) {
+                return cached;
+            }
+            LOGGER.info("Importing quality model from " + path);
+            return new CachedModel(lastModified, new PLCQualityModelImport(path).importQualityModel());
+        }).qualityModel;
+    }
+
+    private static class CachedModel {
+        private final long lastModified;
+        private final QualityModel qualityModel;
+
+        private CachedModel(long lastModified, QualityModel qualityModel) {
+            this.lastModified = lastModified;
+            this.qualityModel = qualityModel;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.google.gson.JsonObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runnable.SingleProjectEvaluator;
+import utilities.AggregatedResults;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AggregatedResultsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void concurrentWritersAppendWholeLines() throws Exception {
+        AggregatedResults results = new AggregatedResults(
+                AggregatedResults.resultsFileFor(temporaryFolder.getRoot().toPath().resolve("output")));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int writer = 0; writer < 8; writer++) {
+            String project = "project" + writer;
+            writers.add(executor.submit(() -> {
+                for (int evaluation = 0; evaluation < 50; evaluation++) {
+                    results.append(row(project, evaluation));
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+
+        AtomicInteger rows = new AtomicInteger();
+        results.forEachRow(row -> rows.incrementAndGet());
+        assertEquals(400, rows.get());
+        Map<String, JsonObject> latest = results.latestRows();
+        assertEquals(8, latest.size());
+        assertEquals(49, latest.get("project3").get("tqi").getAsInt());
+    }
+
+    @Test
+    public void incompleteLineIsSkipped() throws Exception {
+        AggregatedResults results = new AggregatedResults(temporaryFolder.getRoot().toPath().resolve("evalResults.ndjson"));
+        results.append(row("project", 1));
+        Files.write(results.getResultsFile(), "{\"project\": \"proj".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        Map<String, JsonObject> latest = results.latestRows();
+        assertEquals(1, latest.size());
+        assertEquals(1, latest.get("project").get("tqi").getAsInt());
+    }
+
+    @Test
+    public void aggregateResultsAreNotCached() {
+        Properties prop = new Properties();
+        prop.setProperty("results.directory", temporaryFolder.getRoot().toString());
+        prop.setProperty("derived.qm", temporaryFolder.getRoot().toPath().resolve("derived.json").toString());
+        prop.setProperty("evaluation.cache", "true");
+        prop.setProperty("results.export", "aggregate");
+        SingleProjectEvaluator evaluator = new SingleProjectEvaluator();
+        evaluator.configure(prop);
+
+        assertNull(evaluator.getEvaluationCache());
+    }
+
+    private static JsonObject row(String project, int tqi) {
+        JsonObject row = new JsonObject();
+        row.addProperty("project", project);
+        row.addProperty("tqi", tqi);
+        return row;
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.github.dockerjava.api.DockerClient;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tool.AnalyzerContainerPool;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AnalyzerContainerPoolTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private FakeDockerEndpoint endpoint;
+    private DockerClient docker;
+
+    @Before
+    public void startEndpoint() throws IOException {
+        endpoint = new FakeDockerEndpoint();
+        docker = AnalyzerContainerPool.dockerClient("tcp://127.0.0.1:" + endpoint.server.getAddress().getPort());
+    }
+
+    @After
+    public void stopEndpoint() throws IOException {
+        docker.close();
+        endpoint.server.stop(0);
+    }
+
+    @Test
+    public void projectsAreBatchedOnWarmContainers() throws Exception {
+        Path projectRoot = temporaryFolder.getRoot().toPath();
+        List<Path> projects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            projects.add(temporaryFolder.newFolder("project" + i).toPath());
+        }
+
+        Map<Path, Integer> exitCodes;
+        try (AnalyzerContainerPool pool = new AnalyzerContainerPool(docker, "analyzer:test", projectRoot,
+                Arrays.asList("analyze", "--output", "{project}/ken-output.json", "{project}"), 2, 2)) {
+            exitCodes = pool.analyze(projects, 10, TimeUnit.SECONDS);
+            assertTrue(pool.getRunningContainers() <= 2);
+        }
+
+        assertEquals(5, exitCodes.size());
+        exitCodes.values().forEach(exitCode -> assertEquals(0, (int) exitCode));
+        // at most one start per container, and every container removed on close
+        assertTrue(endpoint.created.get() <= 2);
+        assertEquals(endpoint.created.get(), endpoint.removed.get());
+        assertTrue(endpoint.binds.get(0).startsWith(projectRoot.toAbsolutePath() + ":" + AnalyzerContainerPool.PROJECT_MOUNT));
+        Set<String> analyzed = new HashSet<>();
+        for (List<String> command : endpoint.execs) {
+            analyzed.add(command.get(command.size() - 1));
+        }
+        assertEquals(5, analyzed.size());
+        assertTrue(analyzed.contains(AnalyzerContainerPool.PROJECT_MOUNT + "/project3"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void projectOutsideTheRootIsRefused() throws Exception {
+        try (AnalyzerContainerPool pool = new AnalyzerContainerPool(docker, "analyzer:test",
+                temporaryFolder.newFolder("root").toPath(), Collections.singletonList("{project}"), 1, 1)) {
+            pool.commandFor(temporaryFolder.getRoot().toPath().resolve("elsewhere"));
+        }
+    }
+
+    /**
+     * Answers the docker API calls of the pool the way the docker daemon does, running nothing
+     */
+    private static class FakeDockerEndpoint {
+        private final HttpServer server;
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger removed = new AtomicInteger();
+        private final AtomicInteger execIds = new AtomicInteger();
+        private final List<String> binds = Collections.synchronizedList(new ArrayList<>());
+        private final List<List<String>> execs = Collections.synchronizedList(new ArrayList<>());
+
+        FakeDockerEndpoint() throws IOException {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (method.equals("POST") && path.endsWith("/containers/create")) {
+                JsonObject body = body(exchange);
+                body.getAsJsonObject("HostConfig").getAsJsonArray("Binds").forEach(bind -> binds.add(bind.getAsString()));
+                respond(exchange, 201, "{\"Id\": \"container" + created.incrementAndGet() + "\", \"Warnings\": []}");
+            } else if (method.equals("POST") && path.matches(".*/containers/[^/]+/start")) {
+                respond(exchange, 204, null);
+            } else if (method.equals("POST") && path.matches(".*/containers/[^/]+/exec")) {
+                List<String> command = new ArrayList<>();
+                body(exchange).getAsJsonArray("Cmd").forEach(argument -> command.add(argument.getAsString()));
+                execs.add(command);
+                respond(exchange, 201, "{\"Id\": \"exec" + execIds.incrementAndGet() + "\"}");
+            } else if (method.equals("POST") && path.matches(".*/exec/[^/]+/start")) {
+                respond(exchange, 200, "");
+            } else if (method.equals("GET") && path.matches(".*/exec/[^/]+/json")) {
+                respond(exchange, 200, "{\"ExitCode\": 0, \"Running\": false}");
+            } else if (method.equals("DELETE") && path.matches(".*/containers/[^/]+")) {
+                removed.incrementAndGet();
+                respond(exchange, 204, null);
+            } else {
+                respond(exchange, 404, "{\"message\": \"not faked: " + method + " " + path + "\"}");
+            }
+        }
+
+        private static JsonObject body(HttpExchange exchange) throws IOException {
+            return JsonParser.parseReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)).getAsJsonObject();
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            // the client would otherwise reuse connections the server may already have dropped
+            exchange.getResponseHeaders().set("Connection", "close");
+            if (body == null) {
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
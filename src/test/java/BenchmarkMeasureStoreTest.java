@@ -0,0 +1,95 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import calibration.BenchmarkMeasureStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BenchmarkMeasureStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void unchangedProjectIsReadBack() throws Exception {
+        Path project = benchmarkProject("project1", "SA0033: Unused variable");
+        BenchmarkMeasureStore store = new BenchmarkMeasureStore(storeDirectory(), "model");
+        Map<String, BigDecimal> measureValues = new HashMap<>();
+        measureValues.put("SA0033:Unused variables", new BigDecimal("0.125"));
+        measureValues.put("Number of calls", null);
+
+        String fingerprint = store.fingerprint(project);
+        assertNull(store.load(project, fingerprint));
+        store.save(project, fingerprint, measureValues);
+
+        BenchmarkMeasureStore nextDerivation = new BenchmarkMeasureStore(storeDirectory(), "model");
+        assertEquals(measureValues, nextDerivation.load(project, nextDerivation.fingerprint(project)));
+        assertEquals(1, nextDerivation.getReused());
+    }
+
+    @Test
+    public void changedProjectOrModelIsMeasuredAgain() throws Exception {
+        Path project = benchmarkProject("project1", "SA0033: Unused variable");
+        BenchmarkMeasureStore store = new BenchmarkMeasureStore(storeDirectory(), "model");
+        String fingerprint = store.fingerprint(project);
+        store.save(project, fingerprint, Collections.singletonMap("measure", BigDecimal.ONE));
+
+        assertNotEquals(fingerprint, new BenchmarkMeasureStore(storeDirectory(), "other model").fingerprint(project));
+        Files.write(project.resolve("CODESYS-project-rules.txt"), "SA0033: Unused variable\nSA0034: x".getBytes(StandardCharsets.UTF_8));
+        assertNull(store.load(project, store.fingerprint(project)));
+    }
+
+    @Test
+    public void removedProjectsAreDropped() throws Exception {
+        Path kept = benchmarkProject("project1", "a");
+        Path removed = benchmarkProject("project2", "b");
+        BenchmarkMeasureStore store = new BenchmarkMeasureStore(storeDirectory(), "model");
+        store.save(kept, store.fingerprint(kept), Collections.singletonMap("measure", BigDecimal.ONE));
+        store.save(removed, store.fingerprint(removed), Collections.singletonMap("measure", BigDecimal.TEN));
+
+        assertEquals(1, store.retainOnly(Collections.singletonList(kept)));
+        assertNotNull(store.load(kept, store.fingerprint(kept)));
+        assertNull(store.load(removed, store.fingerprint(removed)));
+    }
+
+    private Path storeDirectory() {
+        return temporaryFolder.getRoot().toPath().resolve(".benchmark-measures");
+    }
+
+    private Path benchmarkProject(String name, String rules) throws Exception {
+        Path project = temporaryFolder.newFolder(name).toPath();
+        Files.write(project.resolve("CODESYS-project-rules.txt"), rules.getBytes(StandardCharsets.UTF_8));
+        return project;
+    }
+}
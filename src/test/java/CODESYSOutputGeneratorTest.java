@@ -0,0 +1,83 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import model.MetricMatrix;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tool.CODESYSOutputGenerator;
+import tool.CODESYSWrapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CODESYSOutputGeneratorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void generatedOutputParsesBack() throws Exception {
+        Path project = temporaryFolder.getRoot().toPath().resolve("project0");
+        CODESYSOutputGenerator generator = new CODESYSOutputGenerator(1);
+        generator.setPouCount(40);
+        generator.setFatalErrorRate(0.2);
+        int findings = generator.writeProject(project, "project0");
+
+        CODESYSWrapper codesysWrapper = new CODESYSWrapper();
+        List<List<String>> rules = codesysWrapper.parseRules(project.resolve("CODESYS-project0-StaticAnalysisOutput.txt"));
+        assertEquals(findings, rules.size());
+        MetricMatrix metrics = codesysWrapper.readMetrics(project.resolve("CODESYS-project0-Metrics.csv"));
+        assertEquals(40, metrics.getPouCount());
+        assertEquals(29, metrics.getMetricCount());
+        assertTrue(metrics.indexOfMetric("Number of SFC steps") >= 0);
+    }
+
+    @Test
+    public void ruleDistributionIsHonoured() throws Exception {
+        Path project = temporaryFolder.getRoot().toPath().resolve("project0");
+        CODESYSOutputGenerator generator = new CODESYSOutputGenerator(1);
+        generator.setRuleWeights(CODESYSOutputGenerator.parseRuleWeights("SA0033=1"));
+        generator.writeProject(project, "project0");
+
+        for (List<String> rule : new CODESYSWrapper().parseRules(project.resolve("CODESYS-project0-StaticAnalysisOutput.txt"))) {
+            assertEquals("SA0033", rule.get(0));
+        }
+    }
+
+    @Test
+    public void sameSeedGeneratesSameOutput() throws Exception {
+        Path first = temporaryFolder.getRoot().toPath().resolve("first");
+        Path second = temporaryFolder.getRoot().toPath().resolve("second");
+        new CODESYSOutputGenerator(3).writeBenchmarkRepository(first, 2);
+        new CODESYSOutputGenerator(3).writeBenchmarkRepository(second, 2);
+
+        assertArrayEquals(Files.readAllBytes(first.resolve("project1/CODESYS-project1-Metrics.csv")),
+                Files.readAllBytes(second.resolve("project1/CODESYS-project1-Metrics.csv")));
+        assertArrayEquals(Files.readAllBytes(first.resolve("project1/CODESYS-project1-StaticAnalysisOutput.txt")),
+                Files.readAllBytes(second.resolve("project1/CODESYS-project1-StaticAnalysisOutput.txt")));
+    }
+}
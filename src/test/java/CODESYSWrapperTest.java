@@ -25,6 +25,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayTable;
 import com.google.common.collect.Table;
 import model.MetricFinding;
+import model.MetricMatrix;
 import model.RuleFinding;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -106,6 +107,33 @@ public class CODESYSWrapperTest {
 
     }
 
+    @Test
+    public void isCSVMetricsOutputReadToMatrixCorrectly() {
+        Path inputFile = Paths.get("src/test/resources/MidtermESET_2205_2023-Metrics.csv");
+        MetricMatrix matrix = CODESYSWrapper.readMetrics(inputFile);
+
+        assertEquals(29, matrix.getMetricCount());
+        assertEquals(9, matrix.getPouCount());
+        assertEquals("T_PLC_MS", matrix.getPouName(0));
+        assertEquals("Code size (number of bytes)", matrix.getMetricName(0));
+        assertEquals("Number of SFC steps", matrix.getMetricName(28));
+
+        // csv-based, empty cells are read as 0
+        assertEquals(128.0, matrix.getValue(0, 0), 0.0);
+        assertEquals(0.0, matrix.getValue(1, 0), 0.0);
+        int main = matrix.indexOfPou("Main");
+        assertEquals(3, main);
+        assertEquals(639.0, matrix.getValue(matrix.indexOfMetric("Variables size (number of bytes)"), main), 0.0);
+        assertEquals(2.3, matrix.getValue(26, main), 0.0);
+        assertEquals(2236.0, matrix.getValue(1, matrix.indexOfPou("Globale_Variablen")), 0.0);
+        assertEquals(0.0, matrix.getValue(28, matrix.indexOfPou("BIT_COUNT")), 0.0);
+
+        Table<String, String, Double> table = matrix.toTable();
+        assertEquals(9 * 29, table.size());
+        assertEquals(0.89, table.get("Main", matrix.getMetricName(18)), 0.0);
+        assertEquals(72.0, table.get("BIT_COUNT", "Code size (number of bytes)"), 0.0);
+    }
+
     @Test
     public void isRulesOutputParsedCorrectly() {
         Path relativeFilePath = Paths.get("../msusecl-pique-plc-customcode/src/test/resources/MidtermESET_2205_2023-StaticAnalysisOutput.txt");
@@ -130,6 +158,24 @@ public class CODESYSWrapperTest {
         assertEquals(finalLine.get(1), "Access to program/fb variable 'AlarmTest_VI' from the outside");
     }
 
+    @Test
+    public void areRulesStreamedUpToTheLastFinding() {
+        Path inputFile = Paths.get("src/test/resources/static-analysis-output-unique-last-finding.txt");
+        List<String> ruleIds = new ArrayList<>();
+        List<String> descriptions = new ArrayList<>();
+        CODESYSWrapper.streamRules(inputFile, (ruleId, description) -> {
+            ruleIds.add(ruleId);
+            descriptions.add(description);
+        });
+
+        // the FATAL ERROR line is tool noise, not an SA0001 finding
+        assertEquals(Arrays.asList("SA0033", "SA0162", "SA0102"), ruleIds);
+        assertEquals("Unused Variable 'StartPB'", descriptions.get(0));
+        // the last finding is unique, so it is only here if the final line of the report is read
+        assertEquals("Access to program/fb variable 'Speed_VI' from the outside", descriptions.get(2));
+        assertEquals(CODESYSWrapper.parseRules(inputFile).size(), ruleIds.size());
+    }
+
 //    public void doesInitializeDiagnosticsReturnCorrectNumberOfDiagnostics() {
 //        int numberOfDiagnostics = 145;
 //
@@ -0,0 +1,151 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pique.analysis.ITool;
+import pique.analysis.Tool;
+import pique.model.Diagnostic;
+import runnable.SingleProjectEvaluator;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentToolsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void toolsRunSideBySide() {
+        // each tool only finishes once the other has started, so running them one after another would time out
+        CountDownLatch started = new CountDownLatch(2);
+        Set<ITool> tools = new LinkedHashSet<>();
+        tools.add(new SleepingTool("CODESYS", started, 0));
+        tools.add(new SleepingTool("KEN", started, 0));
+
+        Map<String, Diagnostic> diagnostics = evaluator(properties()).parseFindings(temporaryFolder.getRoot().toPath(), tools);
+        assertEquals(2, diagnostics.size());
+        assertTrue(diagnostics.containsKey("CODESYS diagnostic"));
+        assertTrue(diagnostics.containsKey("KEN diagnostic"));
+    }
+
+    @Test
+    public void toolPastItsTimeoutIsCancelled() {
+        SleepingTool slowTool = new SleepingTool("KEN", new CountDownLatch(0), 60_000);
+        Set<ITool> tools = new LinkedHashSet<>();
+        tools.add(new SleepingTool("CODESYS", new CountDownLatch(0), 0));
+        tools.add(slowTool);
+        Properties prop = properties();
+        prop.setProperty("tool.timeout.seconds.KEN", "1");
+        SingleProjectEvaluator evaluator = evaluator(prop);
+
+        long started = System.nanoTime();
+        try {
+            evaluator.parseFindings(temporaryFolder.getRoot().toPath(), tools);
+            fail("expected the slow tool to time out");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("KEN"));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started) < 10);
+        assertTrue(slowTool.awaitInterrupted());
+    }
+
+    private Properties properties() {
+        Properties prop = new Properties();
+        prop.setProperty("results.directory", temporaryFolder.getRoot().toPath().resolve("output").toString());
+        prop.setProperty("derived.qm", temporaryFolder.getRoot().toPath().resolve("derived.json").toString());
+        prop.setProperty("tool.timeout.seconds", "10");
+        return prop;
+    }
+
+    private SingleProjectEvaluator evaluator(Properties prop) {
+        SingleProjectEvaluator evaluator = new SingleProjectEvaluator() {
+            @Override
+            public Map<String, Diagnostic> runTool(Path projectDir, ITool tool) {
+                return tool.parseAnalysis(tool.analyze(projectDir));
+            }
+        };
+        evaluator.configure(prop);
+        return evaluator;
+    }
+
+    private static class SleepingTool extends Tool {
+        private final String name;
+        private final CountDownLatch started;
+        private final long sleepMillis;
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        SleepingTool(String name, CountDownLatch started, long sleepMillis) {
+            super(name, null);
+            this.name = name;
+            this.started = started;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public Path analyze(Path projectLocation) {
+            return projectLocation;
+        }
+
+        @Override
+        public Map<String, Diagnostic> parseAnalysis(Path toolResults) {
+            try {
+                started.countDown();
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return Collections.singletonMap(name + " diagnostic", new Diagnostic(name + " diagnostic", name, name));
+        }
+
+        @Override
+        public Path initialize(Path toolRoot) {
+            return toolRoot;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        boolean awaitInterrupted() {
+            try {
+                return interrupted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import evaluation.DensityTableUtilityFunction;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DensityTableUtilityFunctionTest {
+
+    private static List<BigDecimal> benchmarkValues() {
+        List<BigDecimal> values = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            values.add(new BigDecimal(i));
+        }
+        return values;
+    }
+
+    @Test
+    public void tableIsMonotonicAndBounded() {
+        int resolution = 64;
+        BigDecimal[] table = DensityTableUtilityFunction.buildTable(benchmarkValues(), resolution);
+
+        assertEquals(2 * resolution, table.length);
+        for (int i = 1; i < resolution; i++) {
+            assertTrue(table[i].compareTo(table[i - 1]) > 0);
+            assertTrue(table[resolution + i].compareTo(table[resolution + i - 1]) >= 0);
+        }
+        assertEquals(0.0, table[resolution].doubleValue(), 0.01);
+        assertEquals(1.0, table[2 * resolution - 1].doubleValue(), 0.01);
+    }
+
+    @Test
+    public void utilityFollowsBenchmarkDistribution() {
+        DensityTableUtilityFunction utilityFunction = new DensityTableUtilityFunction();
+        BigDecimal[] table = DensityTableUtilityFunction.buildTable(benchmarkValues(), DensityTableUtilityFunction.DEFAULT_RESOLUTION);
+
+        assertEquals(0.5, utilityFunction.utilityFunction(new BigDecimal(50), table, true).doubleValue(), 0.01);
+        assertEquals(0.25, utilityFunction.utilityFunction(new BigDecimal(25), table, true).doubleValue(), 0.02);
+        assertEquals(0.75, utilityFunction.utilityFunction(new BigDecimal(25), table, false).doubleValue(), 0.02);
+        assertEquals(1.0, utilityFunction.utilityFunction(new BigDecimal(-1000), table, false).doubleValue(), 0.001);
+        assertEquals(1.0, utilityFunction.utilityFunction(new BigDecimal(1000), table, true).doubleValue(), 0.001);
+    }
+
+    @Test
+    public void identicalBenchmarkValuesStillProduceATable() {
+        List<BigDecimal> values = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            values.add(BigDecimal.ZERO);
+        }
+        DensityTableUtilityFunction utilityFunction = new DensityTableUtilityFunction();
+        BigDecimal[] table = DensityTableUtilityFunction.buildTable(values, 32);
+
+        assertEquals(0.0, utilityFunction.utilityFunction(new BigDecimal(-1), table, true).doubleValue(), 0.001);
+        assertEquals(1.0, utilityFunction.utilityFunction(new BigDecimal(1), table, true).doubleValue(), 0.001);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import utilities.EvaluationCache;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class EvaluationCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void unchangedProjectIsAHit() throws Exception {
+        Path project = temporaryFolder.newFolder("project").toPath();
+        Path rules = write(project.resolve("CODESYS-project-rules.txt"), "SA0033: Unused variable");
+        Path output = write(temporaryFolder.getRoot().toPath().resolve("output.json"), "{}");
+        EvaluationCache cache = new EvaluationCache(temporaryFolder.getRoot().toPath().resolve(".evaluation-cache"));
+
+        String key = EvaluationCache.key(Collections.singletonList(rules), new Properties());
+        assertNull(cache.lookup(project, key));
+        cache.store(project, key, Collections.singletonList(output));
+
+        assertEquals(Collections.singletonList(output.toAbsolutePath().normalize()), cache.lookup(project, key));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void changedInputOrConfigurationChangesTheKey() throws Exception {
+        Path rules = write(temporaryFolder.getRoot().toPath().resolve("rules.txt"), "SA0033: Unused variable");
+        List<Path> inputs = Arrays.asList(rules, temporaryFolder.getRoot().toPath().resolve("missing.csv"));
+        Properties configuration = new Properties();
+        configuration.setProperty("metrics.column.findings", "false");
+        String key = EvaluationCache.key(inputs, configuration);
+
+        assertEquals(key, EvaluationCache.key(inputs, configuration));
+        configuration.setProperty("metrics.column.findings", "true");
+        assertNotEquals(key, EvaluationCache.key(inputs, configuration));
+        configuration.setProperty("metrics.column.findings", "false");
+        write(rules, "SA0034: Unused variable");
+        assertNotEquals(key, EvaluationCache.key(inputs, configuration));
+    }
+
+    @Test
+    public void deletedResultsAreAMiss() throws Exception {
+        Path project = temporaryFolder.newFolder("project").toPath();
+        Path output = write(temporaryFolder.getRoot().toPath().resolve("output.json"), "{}");
+        EvaluationCache cache = new EvaluationCache(temporaryFolder.getRoot().toPath().resolve(".evaluation-cache"));
+        cache.store(project, "key", Collections.singletonList(output));
+
+        Files.delete(output);
+        assertNull(cache.lookup(project, "key"));
+        assertEquals(1, cache.getMisses());
+    }
+
+    private static Path write(Path file, String content) throws Exception {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runnable.EvaluationServer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class EvaluationServerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private EvaluationServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        Properties prop = new Properties();
+        prop.setProperty("project.root", temporaryFolder.newFolder("input").toString());
+        prop.setProperty("results.directory", temporaryFolder.newFolder("output").toString());
+        prop.setProperty("derived.qm", temporaryFolder.getRoot().toPath().resolve("derived.json").toString());
+        server = new EvaluationServer(prop, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void healthReportsServedModel() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) url("/health").openConnection();
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(read(connection.getInputStream()).contains("derived.json"));
+    }
+
+    @Test
+    public void projectsOutsideProjectRootAreRefused() throws Exception {
+        assertEquals(400, post("{\"project\": \"../output\"}"));
+        assertEquals(400, post("{\"project\": \"missing\"}"));
+        assertEquals(400, post("not json"));
+        assertEquals(400, post("{\"project\": \"bad\\u0000name\"}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void severalModelsAreRefused() throws Exception {
+        Properties prop = new Properties();
+        prop.setProperty("project.root", temporaryFolder.getRoot().toPath().resolve("input").toString());
+        prop.setProperty("results.directory", temporaryFolder.getRoot().toPath().resolve("output").toString());
+        prop.setProperty("derived.qm", temporaryFolder.getRoot().toPath().resolve("derived.json").toString());
+        prop.setProperty("derived.qm.models", "full/derived.json, safety/derived.json");
+        new EvaluationServer(prop, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1);
+    }
+
+    private int post(String body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) url("/evaluate").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection.getResponseCode();
+    }
+
+    private URL url(String path) throws Exception {
+        return new URL("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+    }
+
+    private static String read(InputStream in) throws Exception {
+        try (InputStream body = in) {
+            byte[] buffer = new byte[4096];
+            StringBuilder text = new StringBuilder();
+            for (int read; (read = body.read(buffer)) > 0; ) {
+                text.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            }
+            return text.toString();
+        }
+    }
+}
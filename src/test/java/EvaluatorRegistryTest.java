@@ -0,0 +1,75 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import evaluation.EvaluatorRegistry;
+import evaluation.MetricFindingEvaluator;
+import model.MetricFinding;
+import model.RuleFinding;
+import org.junit.Test;
+import pique.evaluation.IEvaluator;
+
+import static org.junit.Assert.*;
+
+public class EvaluatorRegistryTest {
+
+    @Test
+    public void statelessEvaluatorsAreShared() {
+        MetricFinding first = new MetricFinding("metrics.csv", 1.0, -1);
+        MetricFinding second = new MetricFinding("metrics.csv", 2.0, -1);
+
+        assertSame(first.getEval_strategyObj(), second.getEval_strategyObj());
+        assertSame(EvaluatorRegistry.getEvaluator(MetricFindingEvaluator.class),
+                EvaluatorRegistry.getEvaluator(MetricFindingEvaluator.class.getCanonicalName()));
+    }
+
+    @Test
+    public void statefulEvaluatorsAreNotShared() {
+        IEvaluator first = EvaluatorRegistry.getEvaluator(StatefulEvaluator.class);
+        IEvaluator second = EvaluatorRegistry.getEvaluator(StatefulEvaluator.class);
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void loadedEvaluatorsAreSharedOnlyWhenStateless() {
+        IEvaluator loaded = new MetricFindingEvaluator();
+        assertSame(EvaluatorRegistry.getEvaluator(MetricFindingEvaluator.class), EvaluatorRegistry.share(loaded));
+
+        IEvaluator stateful = new StatefulEvaluator();
+        assertSame(stateful, EvaluatorRegistry.share(stateful));
+        assertFalse(EvaluatorRegistry.isStateless(StatefulEvaluator.class));
+    }
+
+    @Test
+    public void ruleFindingsShareTheirDefaultEvaluator() {
+        RuleFinding first = new RuleFinding("rules.txt", "SA0033", "Unused variable 'a'", 10);
+        RuleFinding second = new RuleFinding("rules.txt", "SA0162", "Missing comment for 'b'", 1);
+
+        assertNotNull(first.getEval_strategyObj());
+        assertSame(first.getEval_strategyObj(), second.getEval_strategyObj());
+    }
+
+    public static class StatefulEvaluator extends MetricFindingEvaluator {
+        private int evaluations;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.google.common.collect.Table;
+import evaluation.FastMetricDiagnosticEvaluator;
+import evaluation.FastMetricFindingEvaluator;
+import evaluation.MetricDiagnosticEvaluator;
+import model.MetricFinding;
+import org.junit.Test;
+import pique.model.Diagnostic;
+import pique.model.Finding;
+import pique.model.ModelNode;
+import tool.CODESYSWrapper;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tolerance check of the fast-math evaluator pair against the BigDecimal evaluators
+ */
+public class FastMetricEvaluatorTest {
+
+    private static final double RELATIVE_TOLERANCE = 1e-12;
+
+    @Test
+    public void fastMathMatchesBigDecimalEvaluationOnSampleMetrics() {
+        Path metricsFile = Paths.get("src/test/resources/MidtermESET_2205_2023-Metrics.csv");
+        Table<String, String, Double> metrics = new CODESYSWrapper().parseMetrics(metricsFile);
+
+        for (String column : metrics.columnKeySet()) {
+            Diagnostic exact = new Diagnostic(column, column, "CODESYS", new MetricDiagnosticEvaluator());
+            Diagnostic fast = new Diagnostic(column, column, "CODESYS", new FastMetricDiagnosticEvaluator());
+            for (String row : metrics.rowKeySet()) {
+                Finding exactFinding = new MetricFinding(metricsFile.toString(), metrics.get(row, column), -1);
+                exactFinding.setName(row + " - " + column);
+                exact.setChild(exactFinding);
+                Finding fastFinding = new MetricFinding(metricsFile.toString(), metrics.get(row, column), -1, new FastMetricFindingEvaluator());
+                fastFinding.setName(row + " - " + column);
+                fast.setChild(fastFinding);
+            }
+
+            assertWithinTolerance(column, exact.getEval_strategyObj().evaluate(exact), fast.getEval_strategyObj().evaluate(fast));
+        }
+    }
+
+    @Test
+    public void compensatedSumKeepsSmallValuesNextToLargeOnes() {
+        Diagnostic exact = new Diagnostic("sum", "sum", "CODESYS", new MetricDiagnosticEvaluator());
+        Diagnostic fast = new Diagnostic("sum", "sum", "CODESYS", new FastMetricDiagnosticEvaluator());
+        double[] values = {1e16, 1.0, -1e16, 3.0, 0.1, 0.2};
+        for (int i = 0; i < values.length; i++) {
+            Finding exactFinding = new MetricFinding("metrics.csv", values[i], -1);
+            exactFinding.setName("POU" + i);
+            exact.setChild(exactFinding);
+            Finding fastFinding = new MetricFinding("metrics.csv", values[i], -1, new FastMetricFindingEvaluator());
+            fastFinding.setName("POU" + i);
+            fast.setChild(fastFinding);
+        }
+
+        assertWithinTolerance("sum", exact.getEval_strategyObj().evaluate(exact), fast.getEval_strategyObj().evaluate(fast));
+    }
+
+    @Test
+    public void metricFindingsAreOnlyEvaluatedForExport() {
+        Diagnostic fast = new Diagnostic("sum", "sum", "CODESYS", new FastMetricDiagnosticEvaluator());
+        CountingFindingEvaluator findingEvaluator = new CountingFindingEvaluator();
+        double[] values = {2.0, 0.5, 7.25};
+        for (int i = 0; i < values.length; i++) {
+            Finding finding = new MetricFinding("metrics.csv", values[i], -1, findingEvaluator);
+            finding.setName("POU" + i);
+            fast.setChild(finding);
+        }
+
+        // the aggregate stays in doubles
+        fast.getEval_strategyObj().evaluate(fast);
+        assertEquals(0, findingEvaluator.evaluations);
+
+        FastMetricDiagnosticEvaluator.setFindingValues(Collections.singletonList(fast));
+        assertEquals(values.length, findingEvaluator.evaluations);
+    }
+
+    private static class CountingFindingEvaluator extends FastMetricFindingEvaluator {
+        private int evaluations;
+
+        @Override
+        public BigDecimal evaluate(ModelNode inNode) {
+            evaluations++;
+            return super.evaluate(inNode);
+        }
+    }
+
+    private static void assertWithinTolerance(String metric, BigDecimal expected, BigDecimal actual) {
+        double tolerance = Math.max(Math.abs(expected.doubleValue()) * RELATIVE_TOLERANCE, 1e-12);
+        assertEquals(metric, expected.doubleValue(), actual.doubleValue(), tolerance);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import model.MetricFinding;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pique.model.Diagnostic;
+import pique.model.ModelNode;
+import tool.KENWrapper;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class KENWrapperTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void metricsOfModelDiagnosticsBecomeFindings() throws Exception {
+        Path kenOutput = temporaryFolder.getRoot().toPath().resolve("Program1.json");
+        Files.write(kenOutput, ("{\"Program_names\": {\"value\": [\"PLC_PRG\", \"Conveyor\"]},"
+                + " \"Number_of_lines\": {\"value\": 1200},"
+                + " \"File_size\": {\"unit\": \"bytes\", \"value\": \"2048\"},"
+                + " \"Number_of_rungs\": {\"value\": \"n/a\"},"
+                + " \"Number_of_tags\": {\"value\": 35}}").getBytes(StandardCharsets.UTF_8));
+        Map<String, Diagnostic> diagnostics = new HashMap<>();
+        for (String metric : new String[]{"Number_of_lines", "File_size", "Number_of_rungs"}) {
+            diagnostics.put(metric, new Diagnostic(metric, metric, "KEN"));
+        }
+
+        assertEquals(2, new KENWrapper().attachMetricFindings(kenOutput, diagnostics));
+        assertEquals(1200.0, metricValue(diagnostics.get("Number_of_lines")), 0.0);
+        assertEquals(2048.0, metricValue(diagnostics.get("File_size")), 0.0);
+        assertEquals(0, diagnostics.get("Number_of_rungs").getNumChildren());
+    }
+
+    @Test
+    public void projectWithoutKenOutputHasNoFiles() throws Exception {
+        Path project = temporaryFolder.newFolder("project").toPath();
+        Files.write(project.resolve("CODESYS-project-rules.txt"), new byte[0]);
+        assertTrue(KENWrapper.findToolOutput(project).isEmpty());
+        Files.write(project.resolve("Program1.json"), "{}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, KENWrapper.findToolOutput(project).size());
+    }
+
+    private static double metricValue(Diagnostic diagnostic) {
+        assertEquals(1, diagnostic.getNumChildren());
+        ModelNode finding = diagnostic.getChildren().values().iterator().next();
+        return ((MetricFinding) finding).getMetricValue();
+    }
+
+    @Test
+    public void interruptedParseStops() throws Exception {
+        Path kenOutput = temporaryFolder.getRoot().toPath().resolve("Program1.json");
+        Files.write(kenOutput, "{\"Number_of_lines\": {\"value\": 1200}}".getBytes(StandardCharsets.UTF_8));
+        Map<String, Diagnostic> diagnostics = new HashMap<>();
+        diagnostics.put("Number_of_lines", new Diagnostic("Number_of_lines", "Number_of_lines", "KEN"));
+
+        Thread.currentThread().interrupt();
+        try {
+            new KENWrapper().attachMetricFindings(kenOutput, diagnostics);
+            fail("an interrupted parse should stop");
+        } catch (CancellationException expected) {
+            assertEquals(0, diagnostics.get("Number_of_lines").getNumChildren());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
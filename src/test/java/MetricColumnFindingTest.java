@@ -0,0 +1,79 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import evaluation.FastMetricDiagnosticEvaluator;
+import evaluation.MetricDiagnosticEvaluator;
+import model.MetricColumnFinding;
+import model.MetricFinding;
+import model.MetricMatrix;
+import org.junit.Test;
+import pique.model.Diagnostic;
+import pique.model.Finding;
+import tool.CODESYSWrapper;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+public class MetricColumnFindingTest {
+
+    private final Path metricsFile = Paths.get("src/test/resources/MidtermESET_2205_2023-Metrics.csv");
+
+    @Test
+    public void columnFindingEvaluatesLikeOneFindingPerPou() {
+        MetricMatrix matrix = new CODESYSWrapper().readMetrics(metricsFile);
+
+        for (int column = 0; column < matrix.getMetricCount(); column++) {
+            String metricName = matrix.getMetricName(column);
+            Diagnostic perPou = new Diagnostic(metricName, metricName, "CODESYS", new MetricDiagnosticEvaluator());
+            for (int pou = 0; pou < matrix.getPouCount(); pou++) {
+                Finding f = new MetricFinding(metricsFile.toString(), matrix.getValue(column, pou), -1);
+                f.setName(matrix.getPouName(pou) + " - " + metricName);
+                perPou.setChild(f);
+            }
+            Diagnostic perColumn = new Diagnostic(metricName, metricName, "CODESYS", new MetricDiagnosticEvaluator());
+            Finding columnFinding = new MetricColumnFinding(metricsFile.toString(), matrix, column, -1);
+            columnFinding.setName(metricName);
+            perColumn.setChild(columnFinding);
+
+            BigDecimal expected = perPou.getEval_strategyObj().evaluate(perPou);
+            assertEquals(metricName, 0, expected.compareTo(perColumn.getEval_strategyObj().evaluate(perColumn)));
+            assertEquals(metricName, expected.doubleValue(),
+                    new FastMetricDiagnosticEvaluator().evaluate(perColumn).doubleValue(), 1e-9);
+        }
+    }
+
+    @Test
+    public void namesAreInternedAndIndexed() {
+        MetricMatrix first = new CODESYSWrapper().readMetrics(metricsFile);
+        MetricMatrix second = new CODESYSWrapper().readMetrics(metricsFile);
+
+        assertSame(first.getMetricName(0), second.getMetricName(0));
+        assertSame(first.getPouName(3), second.getPouName(3));
+        assertEquals(3, first.indexOfPou(first.getPouName(3)));
+        assertEquals(0, first.indexOfMetric("Code size (number of bytes)"));
+        assertEquals(-1, first.indexOfMetric("not a metric"));
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pique.analysis.ITool;
+import pique.evaluation.Project;
+import pique.model.ModelNode;
+import runnable.SingleProjectEvaluator;
+import tool.CODESYSWrapper;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class MultiModelEvaluationTest {
+
+    private static final Path DERIVED_MODEL = Paths.get("out/PIQUEPLCmodelqualitymodel.json");
+    // a rule with findings in the sample CODESYS output, left out of the reduced model
+    private static final String REMOVED_MEASURE = "SA0162: Missing comments - Score";
+    private static final String REMOVED_DIAGNOSTIC = "SA0162: Missing comments";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void oneParseIsEvaluatedAgainstEveryModel() throws Exception {
+        Path projectDir = temporaryFolder.newFolder("input", "MidtermESET").toPath();
+        Files.copy(Paths.get("src/test/resources/MidtermESET_2205_2023-StaticAnalysisOutput.txt"),
+                projectDir.resolve("CODESYS-MidtermESET-StaticAnalysisOutput.txt"));
+        Files.copy(Paths.get("src/test/resources/MidtermESET_2205_2023-Metrics.csv"),
+                projectDir.resolve("CODESYS-MidtermESET-Metrics.csv"));
+        Path fullModel = temporaryFolder.newFolder("full").toPath().resolve(DERIVED_MODEL.getFileName());
+        Files.copy(DERIVED_MODEL, fullModel);
+        Path reducedModel = temporaryFolder.newFolder("reduced").toPath().resolve(DERIVED_MODEL.getFileName());
+        writeWithout(DERIVED_MODEL, reducedModel, REMOVED_MEASURE, REMOVED_DIAGNOSTIC);
+        List<Path> models = Arrays.asList(fullModel, reducedModel);
+
+        SingleProjectEvaluator evaluator = new SingleProjectEvaluator();
+        evaluator.configure(properties(fullModel + ", " + reducedModel));
+        Set<ITool> tools = Collections.singleton(new CODESYSWrapper());
+        Map<Path, Project> evaluatedProjects = evaluator.evaluateModels(projectDir, models, tools);
+
+        assertEquals(models, new ArrayList<>(evaluatedProjects.keySet()));
+        for (Path model : models) {
+            Project separate = evaluator.evaluateProject(projectDir, model, tools);
+            Project shared = evaluatedProjects.get(model);
+            assertEquals(0, separate.getQualityModel().getTqi().getValue().compareTo(shared.getQualityModel().getTqi().getValue()));
+            Map<String, ModelNode> separateDiagnostics = separate.getQualityModel().getDiagnostics();
+            Map<String, ModelNode> sharedDiagnostics = shared.getQualityModel().getDiagnostics();
+            assertEquals(separateDiagnostics.keySet(), sharedDiagnostics.keySet());
+            for (Map.Entry<String, ModelNode> diagnostic : separateDiagnostics.entrySet()) {
+                assertEquals(diagnostic.getKey(), 0,
+                        diagnostic.getValue().getValue().compareTo(sharedDiagnostics.get(diagnostic.getKey()).getValue()));
+                assertEquals(diagnostic.getKey(), diagnostic.getValue().getChildren().size(),
+                        sharedDiagnostics.get(diagnostic.getKey()).getChildren().size());
+            }
+        }
+
+        Map<String, ModelNode> fullDiagnostics = evaluatedProjects.get(fullModel).getQualityModel().getDiagnostics();
+        Map<String, ModelNode> reducedDiagnostics = evaluatedProjects.get(reducedModel).getQualityModel().getDiagnostics();
+        assertFalse(fullDiagnostics.get(REMOVED_DIAGNOSTIC).getChildren().isEmpty());
+        assertFalse(reducedDiagnostics.containsKey(REMOVED_DIAGNOSTIC));
+        assertEquals(fullDiagnostics.size() - 1, reducedDiagnostics.size());
+    }
+
+    @Test
+    public void modelsDerivedIntoTheirOwnDirectoriesAreAccepted() {
+        SingleProjectEvaluator evaluator = new SingleProjectEvaluator();
+        evaluator.configure(properties("output/full/PIQUEPLCmodelqualitymodel.json, output/safety/PIQUEPLCmodelqualitymodel.json"));
+
+        assertEquals(2, evaluator.getQmLocations().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void modelsSharingAResultsDirectoryAreRefused() {
+        new SingleProjectEvaluator().configure(properties("output/full/definition.json, output/full/safety.json"));
+    }
+
+    // copies the model at source to target, leaving out every node named like one of names
+    private static void writeWithout(Path source, Path target, String... names) throws Exception {
+        JsonObject model;
+        try (Reader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            model = JsonParser.parseReader(reader).getAsJsonObject();
+        }
+        removeNodes(model, Arrays.asList(names));
+        try (Writer writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(model, writer);
+        }
+    }
+
+    private static void removeNodes(JsonElement element, List<String> names) {
+        if (!element.isJsonObject()) {
+            return;
+        }
+        JsonObject object = element.getAsJsonObject();
+        names.forEach(object::remove);
+        object.entrySet().forEach(member -> removeNodes(member.getValue(), names));
+    }
+
+    private Properties properties(String models) {
+        Properties prop = new Properties();
+        prop.setProperty("results.directory", temporaryFolder.getRoot().toString());
+        prop.setProperty("derived.qm", "output/PIQUEPLCmodelqualitymodel.json");
+        prop.setProperty("derived.qm.models", models);
+        return prop;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import utilities.PhaseMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PhaseMetricsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void phasesAreRecordedAsJsonLines() throws Exception {
+        Path metricsFile = temporaryFolder.getRoot().toPath().resolve("output-metrics.ndjson");
+        for (String project : new String[]{"project0", "project1"}) {
+            PhaseMetrics metrics = PhaseMetrics.begin("evaluate", project);
+            int parsed = PhaseMetrics.measure("parseRules", () -> 131);
+            PhaseMetrics.countFindings("rules", parsed);
+            PhaseMetrics.measure("evaluateTqi", () -> { });
+            PhaseMetrics.end();
+            metrics.writeTo(metricsFile);
+        }
+
+        List<String> lines = Files.readAllLines(metricsFile, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        JsonObject record = JsonParser.parseString(lines.get(1)).getAsJsonObject();
+        assertEquals("project1", record.get("project").getAsString());
+        assertEquals(131, record.getAsJsonObject("findings").get("rules").getAsLong());
+        assertEquals(2, record.getAsJsonArray("phases").size());
+        JsonObject parseRules = record.getAsJsonArray("phases").get(0).getAsJsonObject();
+        assertEquals("parseRules", parseRules.get("phase").getAsString());
+        assertTrue(parseRules.get("wallNanos").getAsLong() >= 0);
+    }
+
+    @Test
+    public void phasesOutsideARecordJustRun() {
+        assertNull(PhaseMetrics.current());
+        assertEquals("parsed", PhaseMetrics.measure("parseRules", () -> "parsed"));
+    }
+
+    @Test
+    public void metricsFileIsInResultsDirectory() {
+        Path results = Paths.get("output").toAbsolutePath();
+        assertEquals(results.resolve("phaseMetrics.ndjson"), PhaseMetrics.metricsFileFor(Paths.get("output/")));
+    }
+}
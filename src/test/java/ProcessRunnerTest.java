@@ -0,0 +1,117 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import utilities.ProcessRunner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+public class ProcessRunnerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void outputIsStreamedLineByLine() throws Exception {
+        List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        int exitCode = new ProcessRunner(1).run(Arrays.asList("sh", "-c", "echo first; echo second 1>&2; exit 3"),
+                temporaryFolder.getRoot().toPath(), lines::add, StandardCharsets.UTF_8, 10, TimeUnit.SECONDS);
+
+        assertEquals(3, exitCode);
+        assertEquals(Arrays.asList("first", "second"), lines);
+    }
+
+    @Test
+    public void outputIsRedirectedToFile() throws Exception {
+        Path outputFile = temporaryFolder.getRoot().toPath().resolve("output.txt");
+        int exitCode = new ProcessRunner(1).run(Arrays.asList("sh", "-c", "echo rules"), null, outputFile, 10, TimeUnit.SECONDS);
+
+        assertEquals(0, exitCode);
+        assertEquals(Collections.singletonList("rules"), Files.readAllLines(outputFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void processPastItsTimeoutIsKilled() throws Exception {
+        long started = System.nanoTime();
+        try {
+            new ProcessRunner(1).run(Arrays.asList("sleep", "30"), null, line -> { }, StandardCharsets.UTF_8, 200, TimeUnit.MILLISECONDS);
+            fail("expected a timeout");
+        } catch (TimeoutException e) {
+            assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started) < 10);
+        }
+    }
+
+    @Test
+    public void outputHeldOpenAfterExitIsAnIOException() throws Exception {
+        try {
+            // the background sleep keeps the output open after sh exits
+            new ProcessRunner(1).run(Arrays.asList("sh", "-c", "echo done; sleep 8 &"), null, line -> { },
+                    StandardCharsets.UTF_8, 10, TimeUnit.SECONDS);
+            fail("expected the output to stay open");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("exited with 0"));
+        }
+    }
+
+    @Test
+    public void replacedSharedRunnerIsShutDown() {
+        ProcessRunner previous = ProcessRunner.shared();
+        ProcessRunner.setShared(previous.getMaxProcesses() + 1);
+        try {
+            assertTrue(previous.isShutdown());
+            assertFalse(ProcessRunner.shared().isShutdown());
+        } finally {
+            ProcessRunner.setShared(previous.getMaxProcesses());
+        }
+    }
+
+    @Test
+    public void processesBeyondTheLimitWait() throws Exception {
+        ProcessRunner runner = new ProcessRunner(2);
+        Path outputFile = temporaryFolder.getRoot().toPath().resolve("output.txt");
+        long started = System.nanoTime();
+        List<Future<Integer>> processes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            processes.add(runner.submit(Arrays.asList("sleep", "0.5"), null, outputFile, 10, TimeUnit.SECONDS));
+        }
+        for (Future<Integer> process : processes) {
+            assertEquals(0, (int) process.get());
+        }
+        // two rounds of two processes
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 1000);
+    }
+}
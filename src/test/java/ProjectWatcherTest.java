@@ -0,0 +1,107 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import runnable.ProjectWatcher;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ProjectWatcherTest {
+
+    private static final long DEBOUNCE_MILLIS = 100;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<Path> evaluated = new CopyOnWriteArrayList<>();
+    private Path projectRoot;
+    private ProjectWatcher watcher;
+    private Thread watcherThread;
+
+    @Before
+    public void startWatcher() throws Exception {
+        projectRoot = temporaryFolder.newFolder("input").toPath().toAbsolutePath().normalize();
+        watcher = new ProjectWatcher(projectRoot, evaluated::add, 1, DEBOUNCE_MILLIS);
+        watcherThread = new Thread(() -> {
+            try {
+                watcher.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        watcherThread.start();
+    }
+
+    @After
+    public void stopWatcher() throws Exception {
+        watcher.close();
+        watcherThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Test
+    public void completePairIsEvaluatedOnce() throws Exception {
+        Path project = Files.createDirectory(projectRoot.resolve("project0"));
+        write(project.resolve("CODESYS-project0-StaticAnalysisOutput.txt"), "SA0033:  Unused Variable");
+        write(project.resolve("CODESYS-project0-Metrics.csv"), "Min.:");
+
+        awaitEvaluations(1);
+        Thread.sleep(DEBOUNCE_MILLIS * 5);
+        assertEquals(1, evaluated.size());
+        assertEquals(project, evaluated.get(0));
+    }
+
+    @Test
+    public void halfAPairIsNotEvaluated() throws Exception {
+        Path project = Files.createDirectory(projectRoot.resolve("project0"));
+        write(project.resolve("CODESYS-project0-StaticAnalysisOutput.txt"), "SA0033:  Unused Variable");
+
+        Thread.sleep(DEBOUNCE_MILLIS * 10);
+        assertTrue(evaluated.isEmpty());
+
+        write(project.resolve("CODESYS-project0-Metrics.csv"), "Min.:");
+        awaitEvaluations(1);
+    }
+
+    private void awaitEvaluations(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (evaluated.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, evaluated.size());
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import model.CODESYSRuleDiagnostic;
+import model.RuleFinding;
+import org.junit.Test;
+import pique.model.Diagnostic;
+import pique.model.QualityModel;
+import utilities.QualityModelCache;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class QualityModelCacheTest {
+
+    private final Path qmFilePath = Paths.get("src/test/resources/pique-plc-customcode-definition.json");
+
+    @Test
+    public void cachedDiagnosticsAreIndependentCopies() {
+        Map<String, Diagnostic> first = QualityModelCache.getDiagnostics(qmFilePath, "CODESYS");
+        Map<String, Diagnostic> second = QualityModelCache.getDiagnostics(qmFilePath, "CODESYS");
+
+        assertEquals(first.keySet(), second.keySet());
+        Diagnostic firstDiagnostic = first.get("SA0033: Unused variables");
+        Diagnostic secondDiagnostic = second.get("SA0033: Unused variables");
+        assertNotSame(firstDiagnostic, secondDiagnostic);
+        assertEquals("CODESYS", secondDiagnostic.getToolName());
+        assertEquals("Medium", ((CODESYSRuleDiagnostic) secondDiagnostic).getImportance());
+
+        firstDiagnostic.setChild(new RuleFinding("rules.txt", "SA0033", "Unused Variable 'x'", 3));
+        assertEquals(0, secondDiagnostic.getNumChildren());
+    }
+
+    @Test
+    public void cachedQualityModelsAreIndependentCopies() {
+        QualityModel first = QualityModelCache.getQualityModel(qmFilePath);
+        QualityModel second = QualityModelCache.getQualityModel(qmFilePath);
+
+        assertNotSame(first, second);
+        assertEquals(first.getName(), second.getName());
+        assertEquals(first.getDiagnostics().keySet(), second.getDiagnostics().keySet());
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import model.StreamingProjectExport;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pique.evaluation.Project;
+import pique.model.QualityModel;
+import tool.CODESYSWrapper;
+import utilities.QualityModelCache;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+public class StreamingProjectExportTest {
+
+    private final Path qmFilePath = Paths.get("src/test/resources/pique-plc-customcode-definition.json");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void findingDetailIsOptional() throws Exception {
+        Path projectDir = temporaryFolder.newFolder("MidtermESET").toPath();
+        Files.copy(Paths.get("src/test/resources/MidtermESET_2205_2023-StaticAnalysisOutput.txt"),
+                projectDir.resolve("CodeSys-MidtermESET-output.txt"));
+        Files.copy(Paths.get("src/test/resources/MidtermESET_2205_2023-Metrics.csv"),
+                projectDir.resolve("CodeSys-MidtermESET-output.csv"));
+        QualityModel qualityModel = QualityModelCache.getQualityModel(qmFilePath);
+        Project project = new Project(projectDir.toString(), projectDir, qualityModel);
+        project.updateDiagnosticsWithFindings(new CODESYSWrapper().parseAnalysis(projectDir));
+
+        JsonObject detailed = export(project, true, "detailed.json");
+        JsonObject counted = export(project, false, "counted.json");
+
+        assertEquals(qualityModel.getName(), detailed.get("name").getAsString());
+        assertEquals(qualityModel.getTqi().getName(), detailed.getAsJsonObject("tqi").get("name").getAsString());
+        assertEquals(qualityModel.getMeasures().size(), detailed.getAsJsonObject("measures").size());
+
+        JsonObject detailedDiagnostic = detailed.getAsJsonObject("diagnostics").getAsJsonObject("SA0033: Unused variables");
+        JsonObject countedDiagnostic = counted.getAsJsonObject("diagnostics").getAsJsonObject("SA0033: Unused variables");
+        int findingCount = detailedDiagnostic.get("findingCount").getAsInt();
+        assertTrue(findingCount > 0);
+        assertEquals(findingCount, detailedDiagnostic.getAsJsonArray("findings").size());
+        assertEquals("SA0033", detailedDiagnostic.getAsJsonArray("findings").get(0).getAsJsonObject().get("ruleId").getAsString());
+        assertEquals(findingCount, countedDiagnostic.get("findingCount").getAsInt());
+        assertFalse(countedDiagnostic.has("findings"));
+    }
+
+    private JsonObject export(Project project, boolean includeFindings, String fileName) throws Exception {
+        Path outputFile = new StreamingProjectExport(project, includeFindings)
+                .exportToJson(temporaryFolder.getRoot().toPath().resolve(fileName));
+        try (Reader reader = Files.newBufferedReader(outputFile, StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader).getAsJsonObject();
+        }
+    }
+}
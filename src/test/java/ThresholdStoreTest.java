@@ -0,0 +1,75 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import calibration.ThresholdStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ThresholdStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void thresholdsRoundTripSorted() throws Exception {
+        Path storePath = temporaryFolder.getRoot().toPath().resolve("thresholds.bin");
+        Map<String, BigDecimal[]> measureThresholds = new HashMap<>();
+        measureThresholds.put("SA0033: Unused variables - Score",
+                new BigDecimal[]{new BigDecimal("4"), new BigDecimal("0.5"), new BigDecimal("12")});
+        measureThresholds.put("Number of calls", new BigDecimal[0]);
+        ThresholdStore.write(storePath, measureThresholds);
+
+        ThresholdStore store = ThresholdStore.open(storePath);
+        assertArrayEquals(new double[]{0.5, 4.0, 12.0}, store.getValues("SA0033: Unused variables - Score"), 0.0);
+        assertEquals(0, store.getThresholds("Number of calls").length);
+        assertNull(store.getValues("not a measure"));
+    }
+
+    @Test
+    public void modelReferencesStoreRelativeToItself() throws Exception {
+        Path storePath = temporaryFolder.getRoot().toPath().resolve("thresholds.bin");
+        Path modelPath = temporaryFolder.getRoot().toPath().resolve("model.json");
+        Map<String, BigDecimal[]> measureThresholds = new HashMap<>();
+        measureThresholds.put("Number of calls", new BigDecimal[]{BigDecimal.ONE});
+        ThresholdStore.write(storePath, measureThresholds);
+        Files.write(modelPath, "{\"name\": \"model\", \"measures\": {}}".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(ThresholdStore.forModel(modelPath));
+        ThresholdStore.linkToModel(modelPath, storePath);
+        ThresholdStore store = ThresholdStore.forModel(modelPath);
+        assertNotNull(store);
+        assertArrayEquals(new double[]{1.0}, store.getValues("Number of calls"), 0.0);
+        // the linked model stays pretty printed
+        assertTrue(Files.readAllLines(modelPath, StandardCharsets.UTF_8).size() > 1);
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2024 Montana State University Software Engineering Labs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package tool;
+
+import model.CODESYSRuleDiagnostic;
+import org.junit.Test;
+import pique.model.Diagnostic;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+// in package tool, the index is internal to the CODESYS wrapper
+public class CODESYSRuleIndexTest {
+
+    @Test
+    public void rulesAreLookedUpBySANumber() {
+        CODESYSRuleIndex index = CODESYSRuleIndex.of(diagnostics());
+
+        assertEquals("SA0033", index.getRuleId(33));
+        assertEquals(10, index.getSeverity(33));
+        assertEquals("SA0102", index.getRuleId(102));
+        assertEquals(1, index.getSeverity(102));
+        // metric diagnostics and unknown rules are not indexed
+        assertNull(index.getRuleId(1));
+        assertNull(index.getRuleId(50));
+
+        String line = "[ERROR]  Test: SA0102: Access to program variable";
+        int idStart = line.indexOf("SA");
+        assertEquals(102, CODESYSRuleIndex.parseRuleNumber(line, idStart, line.indexOf(':', idStart)));
+        assertEquals(-1, CODESYSRuleIndex.parseRuleNumber("SAxx", 0, 4));
+        assertEquals(-1, CODESYSRuleIndex.parseRuleNumber("SA123456", 0, 8));
+    }
+
+    @Test
+    public void indexRebindsToCopiesOfTheModel() {
+        Map<String, Diagnostic> original = diagnostics();
+        CODESYSRuleIndex index = CODESYSRuleIndex.of(original);
+        Map<String, Diagnostic> copies = new HashMap<>();
+        original.forEach((key, diagnostic) -> copies.put(key, (Diagnostic) diagnostic.clone()));
+
+        assertTrue(index.matches(copies));
+        CODESYSRuleDiagnostic[] bound = index.bind(copies);
+        assertSame(copies.get("SA0033:Unused variables"), bound[33]);
+        assertNotSame(original.get("SA0033:Unused variables"), bound[33]);
+        assertSame(copies.get("SA0102:Access to program variable"), bound[102]);
+        assertNull(bound[50]);
+
+        copies.remove("SA0102:Access to program variable");
+        assertFalse(index.matches(copies));
+    }
+
+    private static Map<String, Diagnostic> diagnostics() {
+        Map<String, Diagnostic> diagnostics = new HashMap<>();
+        diagnostics.put("SA0033:Unused variables",
+                new CODESYSRuleDiagnostic("SA0033:Unused variables", "Unused variables", "CODESYS", "high"));
+        diagnostics.put("SA0102:Access to program variable",
+                new CODESYSRuleDiagnostic("SA0102:Access to program variable", "Access to program variable", "CODESYS", "low"));
+        diagnostics.put("Number of calls", new Diagnostic("Number of calls", "Number of calls", "CODESYS"));
+        return diagnostics;
+    }
+}